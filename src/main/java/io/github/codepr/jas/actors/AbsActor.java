@@ -24,12 +24,27 @@
  */
 package io.github.codepr.jas.actors;
 
-import java.rmi.RemoteException;
+import io.github.codepr.jas.actors.dispatcher.Dispatcher;
 import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import io.github.codepr.jas.actors.exceptions.StashOverflowException;
 import io.github.codepr.jas.actors.exceptions.UnsupportedMessageException;
+import io.github.codepr.jas.actors.mailbox.Envelope;
 import io.github.codepr.jas.actors.mailbox.MailBox;
-import io.github.codepr.jas.actors.mailbox.MailBoxImpl;
-import io.github.codepr.jas.actors.AbsActorRef;
+import io.github.codepr.jas.actors.mailbox.MpscMailBox;
+import io.github.codepr.jas.actors.scheduler.Cancellable;
+import io.github.codepr.jas.actors.scheduler.Scheduler;
+import io.github.codepr.jas.actors.supervision.Directive;
+import io.github.codepr.jas.actors.supervision.SupervisorStrategy;
+import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Defines common properties of all actors.
@@ -59,19 +74,286 @@ public abstract class AbsActor<T extends Message> implements Actor<T> {
     protected MailBox<T> mailBox;
 
     /**
-     * Actor internal status flag
+     * Dispatcher scheduling the processing of the mailbox
+     */
+    private Dispatcher dispatcher;
+
+    /**
+     * Scheduler of the system, runs the receive timeout
+     */
+    private Scheduler scheduler;
+
+    /**
+     * Idle time after which {@code onReceiveTimeout} is called, in
+     * nanoseconds, zero if disabled
+     */
+    private volatile long receiveTimeout;
+
+    /**
+     * Time of the last message processed, as of {@code System.nanoTime}
+     */
+    private volatile long lastReceive;
+
+    /**
+     * Set by the timer once the actor has been idle for the receive timeout
+     */
+    private volatile boolean receiveTimedOut;
+
+    /**
+     * Pending timer of the receive timeout, if any
+     */
+    private volatile Cancellable receiveTimer;
+
+    /**
+     * Incremented on every change of the receive timeout, so that timers
+     * armed before the change stop re-arming themselves
      */
-    private volatile boolean alive;
+    private volatile int receiveTimerGeneration;
 
     /**
-     * Looping to apply receive method on incoming messages status flag
+     * Runnable submitted to the dispatcher every time the actor is scheduled
      */
-    private volatile boolean looping;
+    private final ReceiveLoop receiveLoop;
+
+    /**
+     * Marker of {@code receive} in the stack of behaviors
+     */
+    @SuppressWarnings("rawtypes")
+    private static final Behavior RECEIVE = Behavior.builder().build();
+
+    /**
+     * Whether the concrete class of the actor overrides {@code receiveBatch},
+     * resolved once per class
+     */
+    private static final ClassValue<Boolean> BATCHING = new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                for (Class<?> c = type; c != AbsActor.class; c = c.getSuperclass()) {
+                    try {
+                        c.getDeclaredMethod("receiveBatch", List.class);
+                        return true;
+                    } catch (NoSuchMethodException e) {
+                        // not declared here, look at the superclass
+                    }
+                }
+                return false;
+            }
+        };
+
+    /**
+     * True if messages are handed to {@code receiveBatch}
+     */
+    private final boolean batching;
+
+    /**
+     * Envelopes drained from the mailbox by the last batch, only accessed by
+     * the thread processing the mailbox
+     */
+    private final List<Envelope<T>> drained;
+
+    /**
+     * Current behavior, null while messages are handled by {@code receive}
+     */
+    private Behavior<T> behavior;
+
+    /**
+     * Behaviors stacked by {@code become} to be restored by
+     * {@code unbecome}, allocated on first use
+     */
+    private ArrayDeque<Behavior<T>> behaviors;
+
+    /**
+     * Envelope being processed by {@code receive}, null outside of it
+     */
+    private Envelope<T> current;
+
+    /**
+     * Messages set aside by {@code stash}, allocated on first use and only
+     * accessed by the thread processing the mailbox
+     */
+    private ArrayDeque<Envelope<T>> stash;
+
+    /**
+     * Messages given back by {@code unstashAll}, processed before those in
+     * the mailbox
+     */
+    private ArrayDeque<Envelope<T>> unstashed;
+
+    /**
+     * Maximum number of stashed messages
+     */
+    private int stashCapacity = Integer.MAX_VALUE;
+
+    /**
+     * Scheduling states of the actor:
+     * - IDLE, no pending run on the dispatcher
+     * - SCHEDULED, a run has been submitted to the dispatcher
+     * - RUNNING, the actor is processing messages
+     * - STOPPING, the actor does not accept messages anymore, the receiving
+     *   loop processes the messages left in the mailbox
+     * - STOPPED, the actor is dead
+     */
+    private static final int IDLE = 0;
+    private static final int SCHEDULED = 1;
+    private static final int RUNNING = 2;
+    private static final int STOPPING = 3;
+    private static final int STOPPED = 4;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AbsActor> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(AbsActor.class, "state");
+
+    /**
+     * Actor scheduling state, updated with CAS
+     */
+    private volatile int state;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AbsActor> PRODUCERS =
+        AtomicIntegerFieldUpdater.newUpdater(AbsActor.class, "producers");
+
+    /**
+     * Number of senders between the check of the state and the end of the
+     * enqueue, awaited by the termination so that no accepted message is
+     * left in the mailbox
+     */
+    private volatile int producers;
+
+    /**
+     * Actor whose receiving loop is running on the current thread, if any,
+     * so that stopping an actor from another one never blocks the dispatcher
+     */
+    private static final ThreadLocal<AbsActor<?>> RUNNING_ACTOR = new ThreadLocal<>();
+
+    /**
+     * Set if the actor has been stopped while being restarted, the new
+     * instance is stopped as soon as it's handed over
+     */
+    private boolean stopOnHandover;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AbsActor, Signal> SIGNALS =
+        AtomicReferenceFieldUpdater.newUpdater(AbsActor.class, Signal.class, "signals");
+
+    /**
+     * Directives of the supervision and terminations of watched actors to be
+     * handled on the thread of the actor ahead of its messages, a lock-free
+     * stack
+     */
+    private volatile Signal signals;
+
+    /**
+     * System which created the actor, null for actors created by hand
+     */
+    private AbsActorSystem system;
+
+    /**
+     * Recipe of the actor, used to create a new instance on restart, null
+     * for actors that cannot be restarted, e.g. routers
+     */
+    private Props props;
+
+    /**
+     * Supervisor of the actor, null for actors created by the system
+     */
+    private volatile AbsActor<?> parent;
+
+    /**
+     * Children of the actor, an immutable snapshot replaced on every change
+     */
+    private volatile List<AbsActor<?>> children = Collections.emptyList();
+
+    /**
+     * Instance replacing this one once restarted, messages still reaching
+     * this instance are forwarded to it
+     */
+    private volatile AbsActor<T> successor;
+
+    /**
+     * Number of restarts within the current window of the restart limit
+     */
+    private int restarts;
+
+    /**
+     * Start of the current window of the restart limit
+     */
+    private long restartWindow;
 
     public AbsActor() {
-        this.mailBox = new MailBoxImpl<>();
-        this.alive = true;
-        this.looping = false;
+        this.mailBox = new MpscMailBox<>();
+        this.receiveLoop = new ReceiveLoop();
+        this.state = IDLE;
+        this.batching = BATCHING.get(getClass());
+        this.drained = batching ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Process a batch of messages drained from the mailbox at once. It's
+     * called in place of {@code receive} only by actors overriding it, with
+     * up to {@code throughput} messages of the dispatcher, allowing to
+     * amortize work such as a flush to a database or a file. A batch only
+     * holds consecutive messages from the same sender, {@code sender} refers
+     * to it during the call. Defaults to apply {@code receive} to every
+     * message.
+     *
+     * @param messages The messages to be processed, in order
+     */
+    protected void receiveBatch(List<T> messages) {
+        for (T message : messages)
+            handle(message);
+    }
+
+    /**
+     * Handle the following messages with {@code behavior} in place of the
+     * current one, starting from the next message. Messages are handled by
+     * {@code receive} until the first call.
+     *
+     * @param behavior The new behavior of the actor
+     */
+    protected final void become(Behavior<T> behavior) {
+        become(behavior, true);
+    }
+
+    /**
+     * Handle the following messages with {@code behavior}, starting from the
+     * next message, keeping the current one on a stack to be restored by
+     * {@code unbecome} if {@code discardOld} is false.
+     *
+     * @param behavior The new behavior of the actor
+     * @param discardOld True to replace the current behavior, false to
+     * stack it
+     */
+    @SuppressWarnings("unchecked")
+    protected final void become(Behavior<T> behavior, boolean discardOld) {
+        if (behavior == null)
+            throw new IllegalArgumentException("Behavior must not be null");
+        if (!discardOld) {
+            if (behaviors == null)
+                behaviors = new ArrayDeque<>();
+            // a null behavior in the stack stands for receive
+            behaviors.push(this.behavior == null ? RECEIVE : this.behavior);
+        }
+        this.behavior = behavior;
+    }
+
+    /**
+     * Restore the behavior stacked by the last {@code become}, or
+     * {@code receive} if the stack is empty
+     */
+    protected final void unbecome() {
+        Behavior<T> previous = behaviors == null ? null : behaviors.poll();
+        this.behavior = previous == RECEIVE ? null : previous;
+    }
+
+    /**
+     * Handle a message with the current behavior, or {@code receive}
+     * @param message The message to be handled
+     */
+    private void handle(T message) {
+        Behavior<T> current = this.behavior;
+        if (current == null)
+            receive(message);
+        else current.apply(message);
     }
 
     /**
@@ -86,96 +368,981 @@ public abstract class AbsActor<T extends Message> implements Actor<T> {
     }
 
     /**
-     * Sets the reference to the sender of the current message
-     * @param sender The reference to the sender of the current message
+     * Return the self-reference.
+     *
+     * @return The reference to the actor
+     */
+    public final ActorRef<T> getSelf() {
+        return this.self;
+    }
+
+    /**
+     * Return the number of messages waiting in the mailbox, used e.g. by
+     * routers to pick the least loaded actor.
+     *
+     * @return The number of messages in the mailbox, possibly approximate
+     */
+    public int getMailBoxSize() {
+        return mailBox.size();
+    }
+
+    /**
+     * Sets the dispatcher used to schedule the processing of the mailbox.
+     *
+     * @param dispatcher The dispatcher of the actor
+     * @return The actor.
+     */
+    protected final Actor<T> setDispatcher(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        return this;
+    }
+
+    /**
+     * Set aside the message being processed, along with its sender, until
+     * {@code unstashAll} is called, e.g. to defer the messages arriving
+     * before the actor is initialized instead of blocking their senders.
+     * Stashed messages still pending when the actor is stopped are dropped.
+     * Only available inside {@code receive}, not to actors overriding
+     * {@code receiveBatch}.
+     *
+     * @throws StashOverflowException if the stash is full, the message is
+     * not stashed
+     * @throws IllegalStateException if called outside of {@code receive}
+     */
+    protected final void stash() {
+        if (current == null)
+            throw new IllegalStateException("No message to stash");
+        if (stash == null)
+            stash = new ArrayDeque<>();
+        if (stash.size() >= stashCapacity)
+            throw new StashOverflowException("Stash capacity " + stashCapacity + " exceeded");
+        stash.add(current);
+    }
+
+    /**
+     * Give all the stashed messages back, to be processed in the same order
+     * before any message in the mailbox
+     */
+    protected final void unstashAll() {
+        if (stash == null || stash.isEmpty())
+            return;
+        if (unstashed == null)
+            unstashed = new ArrayDeque<>();
+        while (!stash.isEmpty())
+            unstashed.addFirst(stash.pollLast());
+    }
+
+    /**
+     * Sets the maximum number of messages that can be stashed, unbounded by
+     * default
+     *
+     * @param capacity The capacity of the stash
+     */
+    protected final void setStashCapacity(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Stash capacity must not be negative");
+        this.stashCapacity = capacity;
+    }
+
+    /**
+     * Return the number of stashed messages
+     */
+    protected final int getStashSize() {
+        return stash == null ? 0 : stash.size();
+    }
+
+    /**
+     * Return the dispatcher of the actor
+     */
+    final Dispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Create a child actor described by {@code props}, supervised by this
+     * actor according to {@code supervisorStrategy}. Children are stopped
+     * along with their parent and survive its restarts.
+     *
+     * @param props The recipe of the child
+     * @return A reference to the child
+     * @throws IllegalStateException if the actor has not been created by a
+     * system
+     */
+    protected final ActorRef<? extends Message> actorOf(Props props) {
+        if (system == null)
+            throw new IllegalStateException("Actor not created by a system");
+        return system.actorOf(props, this);
+    }
+
+    /**
+     * Return the reference to the supervisor of the actor, null for actors
+     * created by the system
+     */
+    protected final ActorRef<? extends Message> getParent() {
+        AbsActor<?> supervisor = parent;
+        return supervisor == null ? null : supervisor.self;
+    }
+
+    /**
+     * Return the references to the children of the actor
+     */
+    protected final List<ActorRef<? extends Message>> getChildren() {
+        List<AbsActor<?>> current = children;
+        List<ActorRef<? extends Message>> refs = new ArrayList<>(current.size());
+        for (AbsActor<?> child : current)
+            refs.add(child.self);
+        return refs;
+    }
+
+    /**
+     * Return the strategy applied to the children of the actor failing while
+     * processing a message. It's called on the threads of the children,
+     * right after a failure, so it should return a constant. Defaults to
+     * restart the failing child only.
+     *
+     * @return The strategy supervising the children
+     */
+    protected SupervisorStrategy supervisorStrategy() {
+        return SupervisorStrategy.DEFAULT;
+    }
+
+    /**
+     * Called on the failed instance of the actor right before it's replaced
+     * by a new one, e.g. to release resources. Nothing by default.
+     *
+     * @param cause The exception which caused the restart
+     */
+    protected void preRestart(Throwable cause) {}
+
+    /**
+     * Called on the new instance of the actor before it processes any
+     * message. Nothing by default.
+     *
+     * @param cause The exception which caused the restart
+     */
+    protected void postRestart(Throwable cause) {}
+
+    /**
+     * Called once the actor has been created, on the thread creating it,
+     * before it processes any message, e.g. to watch other actors. It's not
+     * called again on restart. Nothing by default.
+     */
+    protected void preStart() {}
+
+    /**
+     * Watch {@code actor}, {@code onTerminated} is called once it's stopped,
+     * right away if it's stopped already
+     *
+     * @param actor The actor to watch, local or remote
+     */
+    protected final void watch(ActorRef<? extends Message> actor) {
+        try {
+            actor.watch(self);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stop watching {@code actor}, a termination already signaled may still
+     * be notified
+     *
+     * @param actor The actor not to watch anymore
+     */
+    protected final void unwatch(ActorRef<? extends Message> actor) {
+        try {
+            actor.unwatch(self);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Called on the thread processing the mailbox once an actor watched by
+     * this one is stopped, ahead of the messages in the mailbox. Nothing by
+     * default.
+     *
+     * @param terminated The notification carrying the stopped actor
+     */
+    protected void onTerminated(Terminated terminated) {}
+
+    /**
+     * Sets the system which created the actor, the recipe to restart it and
+     * its supervisor, if any
+     */
+    final void setContext(AbsActorSystem system, Props props, AbsActor<?> parent) {
+        this.system = system;
+        this.props = props;
+        this.parent = parent;
+    }
+
+    /**
+     * Return the supervisor of the actor, null for actors created by the
+     * system
+     */
+    final AbsActor<?> getParentActor() {
+        return this.parent;
+    }
+
+    /**
+     * Return the children of the actor
+     */
+    final List<AbsActor<?>> getChildActors() {
+        return this.children;
+    }
+
+    final synchronized void addChild(AbsActor<?> child) {
+        List<AbsActor<?>> updated = new ArrayList<>(children);
+        updated.add(child);
+        this.children = Collections.unmodifiableList(updated);
+    }
+
+    final synchronized void removeChild(AbsActor<?> child) {
+        List<AbsActor<?>> updated = new ArrayList<>(children);
+        if (updated.remove(child))
+            this.children = Collections.unmodifiableList(updated);
+    }
+
+    private synchronized void replaceChild(AbsActor<?> failed, AbsActor<?> fresh) {
+        List<AbsActor<?>> updated = new ArrayList<>(children);
+        int i = updated.indexOf(failed);
+        if (i < 0)
+            return;
+        updated.set(i, fresh);
+        this.children = Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * Sets the scheduler running the receive timeout, arming it if it has
+     * been set already, e.g. in the constructor.
+     *
+     * @param scheduler The scheduler of the system
+     * @return The actor.
+     */
+    protected final Actor<T> setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+        if (receiveTimeout > 0)
+            setReceiveTimeout(receiveTimeout, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    /**
+     * Call {@code onReceiveTimeout} every time the actor receives no message
+     * for {@code timeout}. The idle time is checked by a timer of the system
+     * scheduler, so processing a message costs just a clock read. Can be
+     * called in the constructor as well as while processing a message.
+     *
+     * @param timeout The idle time, zero to disable the receive timeout
+     * @param unit The time unit of {@code timeout}
      */
-    public final void setSender(ActorRef<T> sender) {
-        this.sender = sender;
+    protected final void setReceiveTimeout(long timeout, TimeUnit unit) {
+        long nanos = unit.toNanos(timeout);
+        int generation = ++receiveTimerGeneration;
+        Cancellable timer = receiveTimer;
+        if (timer != null)
+            timer.cancel();
+        this.receiveTimeout = Math.max(0, nanos);
+        this.lastReceive = System.nanoTime();
+        if (nanos > 0 && scheduler != null)
+            armReceiveTimeout(nanos, generation);
     }
 
     /**
-     * Enqueue incoming messages inside the mailbox
+     * Called on the thread processing the mailbox once the actor has been
+     * idle for the receive timeout, e.g. to release resources or to give up
+     * waiting for a reply. Nothing by default.
+     */
+    protected void onReceiveTimeout() {}
+
+    private void armReceiveTimeout(long delay, int generation) {
+        try {
+            receiveTimer = scheduler.scheduleOnce(delay, TimeUnit.NANOSECONDS,
+                                                  () -> checkReceiveTimeout(generation));
+        } catch (IllegalStateException e) {
+            // the system is shutting down, the actor is about to be stopped
+        }
+    }
+
+    /**
+     * Run by the timer, schedule the actor to call {@code onReceiveTimeout}
+     * if it's been idle long enough, then arm the timer again
+     */
+    private void checkReceiveTimeout(int generation) {
+        long timeout = receiveTimeout;
+        if (generation != receiveTimerGeneration || timeout == 0 || state >= STOPPING)
+            return;
+        long idle = System.nanoTime() - lastReceive;
+        if (idle < timeout) {
+            armReceiveTimeout(timeout - idle, generation);
+            return;
+        }
+        lastReceive = System.nanoTime();
+        receiveTimedOut = true;
+        schedule();
+        armReceiveTimeout(timeout, generation);
+    }
+
+    /**
+     * Sets the mailbox storing incoming messages, must be called before the
+     * actor receives any message.
+     *
+     * @param mailBox The mailbox of the actor
+     * @return The actor.
+     */
+    protected final Actor<T> setMailBox(MailBox<T> mailBox) {
+        this.mailBox = mailBox;
+        return this;
+    }
+
+    /**
+     * Enqueue incoming messages inside the mailbox, scheduling the actor on
+     * the dispatcher if it's idle. Never takes a lock, the actor is scheduled
+     * exactly once by the sender winning the transition from {@code IDLE}.
      * @param message The message to be stored
+     * @param sender The reference to the sender of the message
      * @throws NoSuchActorException if actor status is not alive
      */
-    public synchronized void enqueue(T message) {
-        if (!alive)
-            throw new NoSuchActorException();
-        mailBox.enqueue(message);
-        if (!this.looping) start();
+    public void enqueue(T message, ActorRef<T> sender) {
+        PRODUCERS.incrementAndGet(this);
+        if (state >= STOPPING) {
+            PRODUCERS.decrementAndGet(this);
+            AbsActor<T> next = latest();
+            if (next == null)
+                throw new NoSuchActorException();
+            next.enqueue(message, sender);
+            return;
+        }
+        try {
+            // never park the thread of an actor, the receiver may need it
+            if (onActorThread())
+                mailBox.enqueueWithoutBlocking(new Envelope<>(message, sender));
+            else mailBox.enqueue(new Envelope<>(message, sender));
+        } finally {
+            PRODUCERS.decrementAndGet(this);
+        }
+        schedule();
     }
 
     /**
-     * Stops the actor from receiving incoming messages, process remaining messages
-     * in the mailbox and sets {@code alive} to false
+     * Enqueue a batch of incoming messages inside the mailbox in one go,
+     * scheduling the actor at most once for the whole batch. Mailboxes that
+     * may block senders receive the messages one by one, scheduling the actor
+     * as needed.
+     * @param messages The messages to be stored, in order
+     * @param sender The reference to the sender of the messages
+     * @throws NoSuchActorException if actor status is not alive
      */
-    public synchronized void stop() {
-        this.looping = false;
-        while (!mailBox.isEmpty()) {
-            try {
-                receive(getNextMessage());
-            } catch (NoSuchActorException | UnsupportedMessageException e) {
-                e.printStackTrace();
+    public void enqueueAll(Collection<? extends T> messages, ActorRef<T> sender) {
+        if (mailBox.blocksSenders()) {
+            for (T message : messages)
+                enqueue(message, sender);
+            return;
+        }
+        List<Envelope<T>> envelopes = new ArrayList<>(messages.size());
+        for (T message : messages)
+            envelopes.add(new Envelope<>(message, sender));
+        PRODUCERS.incrementAndGet(this);
+        if (state >= STOPPING) {
+            PRODUCERS.decrementAndGet(this);
+            AbsActor<T> next = latest();
+            if (next == null)
+                throw new NoSuchActorException();
+            next.enqueueAll(messages, sender);
+            return;
+        }
+        try {
+            mailBox.enqueueAll(envelopes);
+        } finally {
+            PRODUCERS.decrementAndGet(this);
+        }
+        schedule();
+    }
+
+    /**
+     * Stops the actor from receiving incoming messages without blocking: the
+     * remaining messages in the mailbox are processed by the receiving loop
+     * on the dispatcher, then the actor is stopped and released by the
+     * system. Use {@code awaitTermination} to wait for it.
+     */
+    public void stop() {
+        int prev;
+        do {
+            prev = state;
+            if (prev >= STOPPING) {
+                AbsActor<T> next = latest();
+                if (next != null)
+                    next.stop();
+                return;
+            }
+        } while (!STATE.compareAndSet(this, prev, STOPPING));
+        receiveTimerGeneration++;
+        Cancellable timer = receiveTimer;
+        if (timer != null)
+            timer.cancel();
+        // a pending or running loop sees the new state, otherwise run one to
+        // process what's left in the mailbox
+        if (prev == IDLE)
+            dispatcher.dispatch(receiveLoop);
+    }
+
+    /**
+     * Wait for the actor to be stopped, once {@code stop} has been called
+     */
+    final void awaitTermination() {
+        synchronized (this) {
+            boolean interrupted = false;
+            while (state != STOPPED) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+        // restarted in the meantime, wait for the new instance
+        AbsActor<T> next = latest();
+        if (next != null)
+            next.awaitTermination();
+    }
+
+    /**
+     * Check if the current thread is running the receiving loop of an
+     * actor, which must never block waiting for another actor
+     */
+    static boolean onActorThread() {
+        return RUNNING_ACTOR.get() != null;
+    }
+
+    /**
+     * Called by the receiving loop observing the {@code STOPPING} state,
+     * process the messages left in the mailbox, then mark the actor stopped
+     * and let the system release it. Senders which passed the check of the
+     * state before the actor was stopping are waited for, their messages
+     * are processed as well. Messages left in a mailbox shared with other
+     * actors are left to them, unless this is the last one.
+     */
+    private void terminate() {
+        if (mailBox.detachConsumer()) {
+            drain();
+            while (producers > 0) {
+                // keep draining, a sender may be blocked on a full mailbox
+                Thread.yield();
+                drain();
             }
+            drain();
+        } else {
+            Envelope<T> envelope;
+            while (unstashed != null && (envelope = unstashed.poll()) != null)
+                process(envelope);
+            while (producers > 0)
+                Thread.yield();
+        }
+        this.stash = null;
+        this.signals = null;
+        synchronized (this) {
+            this.state = STOPPED;
+            notifyAll();
         }
-        this.alive = false;
+        if (system != null)
+            system.release(this);
     }
 
     /**
-     * Return the actor status
-     * @return True if alive, otherwise false
+     * Process all the messages left, unstashed or in the mailbox
      */
-    private boolean isAlive() {
-        return this.alive;
+    private void drain() {
+        if (batching) {
+            while (processBatch(dispatcher.getThroughput()) > 0);
+        } else {
+            Envelope<T> envelope;
+            while ((envelope = next()) != null)
+                process(envelope);
+        }
     }
 
     /**
-     * Return the receiving loop status
-     * @return True if the actor is looping, otherwise false
+     * Apply the receive method to the message of an envelope, setting the
+     * sender of the current message right before
+     * @param envelope The message to be processed, along with its sender
      */
-    private boolean isLooping() { return this.looping; }
+    private void process(Envelope<T> envelope) {
+        this.sender = envelope.getSender();
+        this.current = envelope;
+        try {
+            handle(envelope.getMessage());
+        } catch (NoSuchActorException | UnsupportedMessageException | StashOverflowException e) {
+            e.printStackTrace();
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            this.current = null;
+        }
+    }
 
     /**
-     * Remove the head message from the mailbox, ready to be processed
-     * @throws NoSuchActorException if the actor is not alive (stopped)
-     * @return the head message of the mailbox if there's any
+     * Remove the next message to be processed, unstashed messages first
+     * @return The next message, or null if there are none
      */
-    private T getNextMessage() {
-        if (!alive)
-            throw new NoSuchActorException();
-        return this.mailBox.remove();
+    private Envelope<T> next() {
+        if (unstashed != null) {
+            Envelope<T> envelope = unstashed.poll();
+            if (envelope != null)
+                return envelope;
+        }
+        return mailBox.poll();
     }
 
     /**
-     * Starts the receiving loop for the actor, set it's status to alive and looping
+     * Check if there are messages to be processed, unstashed or in the
+     * mailbox
      */
-    private synchronized void start() {
-        this.alive = true;
-        this.looping = true;
+    private boolean hasNext() {
+        return (unstashed != null && !unstashed.isEmpty()) || !mailBox.isEmpty();
+    }
+
+    /**
+     * Apply the onReceiveTimeout hook, there's no sender
+     */
+    private void timeout() {
+        this.sender = null;
         try {
-            ((AbsActorRef<T>) self).startReceivingLoop(new ReceiveLoop());
-        } catch (RemoteException e) {
+            onReceiveTimeout();
+        } catch (NoSuchActorException | UnsupportedMessageException e) {
             e.printStackTrace();
+        } catch (RuntimeException e) {
+            fail(e);
         }
     }
 
     /**
-     * Runnable type, process all messages inside the mailbox for the full duration
-     * of the alive status of the actor
+     * Drain at most {@code max} messages from the mailbox and apply the
+     * receiveBatch method to every run of consecutive messages from the same
+     * sender, setting the sender right before. If the actor fails, the runs
+     * left are given back ahead of the mailbox.
+     * @param max The maximum number of messages drained
+     * @return The number of messages processed
+     */
+    private int processBatch(int max) {
+        int n = 0;
+        Envelope<T> unstashedEnvelope;
+        while (unstashed != null && n < max && (unstashedEnvelope = unstashed.poll()) != null) {
+            drained.add(unstashedEnvelope);
+            n++;
+        }
+        n += mailBox.drainTo(drained, max - n);
+        int from = 0;
+        try {
+            while (from < n) {
+                ActorRef<T> runSender = drained.get(from).getSender();
+                int to = from + 1;
+                while (to < n && Objects.equals(drained.get(to).getSender(), runSender))
+                    to++;
+                List<T> messages = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++)
+                    messages.add(drained.get(i).getMessage());
+                this.sender = runSender;
+                from = to;
+                try {
+                    receiveBatch(messages);
+                } catch (NoSuchActorException | UnsupportedMessageException e) {
+                    e.printStackTrace();
+                } catch (RuntimeException e) {
+                    if (from < n) {
+                        if (unstashed == null)
+                            unstashed = new ArrayDeque<>();
+                        for (int i = n - 1; i >= from; i--)
+                            unstashed.addFirst(drained.get(i));
+                    }
+                    fail(e);
+                    return from;
+                }
+            }
+        } finally {
+            drained.clear();
+        }
+        return n;
+    }
+
+    /**
+     * Apply the strategy of the supervisor to a failure of the actor, on the
+     * thread processing the mailbox. The failing message is dropped, the
+     * actor is restarted or stopped right away, while siblings and
+     * supervisor are signaled to act on their own threads.
+     * @param cause The exception thrown by the actor
+     */
+    private void fail(Throwable cause) {
+        cause.printStackTrace();
+        fail(cause, false);
+    }
+
+    /**
+     * Apply the strategy of the supervisor to a failure of the actor. A
+     * failure escalated by a child is handled as a failure of the actor
+     * itself and the resulting directive extends to its subtree: stopping
+     * the actor stops its children, restarting it restarts them as well,
+     * while resuming it resumes the failing child.
+     * @param cause The exception thrown by the actor or escalated to it
+     * @param escalated True if the failure has been escalated by a child
+     */
+    private void fail(Throwable cause, boolean escalated) {
+        // stopping or already replaced, nothing left to recover
+        if (state != RUNNING || successor != null)
+            return;
+        AbsActor<?> supervisor = parent;
+        SupervisorStrategy strategy =
+            supervisor == null ? SupervisorStrategy.DEFAULT : supervisor.supervisorStrategy();
+        Directive directive = strategy.decide(cause);
+        if (directive == Directive.RESTART && !canRestart(strategy))
+            directive = Directive.STOP;
+        boolean allForOne = supervisor != null && strategy.isAllForOne();
+        switch (directive) {
+        case RESTART:
+            if (allForOne)
+                supervisor.signalChildren(this, Directive.RESTART, cause, escalated);
+            restart(cause, escalated);
+            break;
+        case STOP:
+            if (allForOne)
+                supervisor.signalChildren(this, Directive.STOP, cause, false);
+            stopSelf();
+            break;
+        case ESCALATE:
+            if (supervisor == null)
+                stopSelf();
+            else supervisor.signal(new Signal(Directive.ESCALATE, cause, null, false));
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Count a restart against the limit of the strategy
+     * @return True if the actor can be restarted, false if it exceeded the
+     * maximum number of restarts within the time window
+     */
+    private boolean canRestart(SupervisorStrategy strategy) {
+        int max = strategy.getMaxRetries();
+        if (max < 0)
+            return true;
+        long now = System.nanoTime();
+        long window = strategy.getWithinNanos();
+        if (restarts == 0 || (window > 0 && now - restartWindow > window)) {
+            restartWindow = now;
+            restarts = 0;
+        }
+        return ++restarts <= max;
+    }
+
+    /**
+     * Replace the actor with a new instance created from its {@code Props},
+     * handing over reference, mailbox, unstashed messages and children, so
+     * that no message is lost. Called on the thread processing the mailbox,
+     * the new instance is scheduled as soon as this one yields the thread.
+     * Actors without a recipe, e.g. routers, are resumed instead.
+     * @param cause The exception which caused the restart
+     * @param subtree True to restart the children as well, otherwise they
+     * survive the restart
+     */
+    @SuppressWarnings("unchecked")
+    private void restart(Throwable cause, boolean subtree) {
+        if (props == null)
+            return;
+        try {
+            preRestart(cause);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        AbsActor<T> fresh;
+        try {
+            fresh = (AbsActor<T>) props.newInstance();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            stopSelf();
+            return;
+        }
+        fresh.mailBox = mailBox;
+        fresh.self = self;
+        fresh.dispatcher = dispatcher;
+        fresh.system = system;
+        fresh.props = props;
+        fresh.parent = parent;
+        fresh.children = children;
+        fresh.restarts = restarts;
+        fresh.restartWindow = restartWindow;
+        unstashAll();
+        fresh.unstashed = unstashed;
+        this.unstashed = null;
+        receiveTimerGeneration++;
+        Cancellable timer = receiveTimer;
+        if (timer != null)
+            timer.cancel();
+        fresh.setScheduler(scheduler);
+        try {
+            fresh.postRestart(cause);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        for (AbsActor<?> child : children)
+            child.parent = fresh;
+        AbsActor<?> supervisor = parent;
+        if (supervisor != null)
+            supervisor.replaceChild(this, fresh);
+        system.restarted(this, fresh);
+        // from now on messages reaching this instance are forwarded
+        this.successor = fresh;
+        // already stopping, the new instance is stopped once handed over
+        if (!STATE.compareAndSet(this, RUNNING, STOPPING))
+            stopOnHandover = true;
+        if (subtree)
+            fresh.signalChildren(null, Directive.RESTART, cause, true);
+    }
+
+    /**
+     * Stop the actor from its own thread, along with its children
+     */
+    private void stopSelf() {
+        if (system == null) {
+            stop();
+            return;
+        }
+        try {
+            system.stop(self);
+        } catch (NoSuchActorException e) {
+            stop();
+        }
+    }
+
+    /**
+     * Signal a directive to all the children but {@code failed}, to their
+     * subtrees as well if {@code subtree} is set
+     */
+    private void signalChildren(AbsActor<?> failed, Directive directive, Throwable cause, boolean subtree) {
+        for (AbsActor<?> child : children)
+            if (child != failed)
+                child.signal(new Signal(directive, cause, null, subtree));
+    }
+
+    /**
+     * Push a signal to be handled on the thread of the actor, ahead of the
+     * messages in its mailbox, dropped if the actor is stopped
+     */
+    private void signal(Signal signal) {
+        AbsActor<T> target = latest();
+        if (target == null)
+            target = this;
+        if (target.state == STOPPED)
+            return;
+        do {
+            signal.next = target.signals;
+        } while (!SIGNALS.compareAndSet(target, signal.next, signal));
+        target.schedule();
+    }
+
+    /**
+     * Handle the pending signals in the order they were pushed, handing them
+     * over to the new instance if the actor has been restarted
+     */
+    private void processSignals() {
+        Signal head = SIGNALS.getAndSet(this, null);
+        Signal ordered = null;
+        while (head != null) {
+            Signal next = head.next;
+            head.next = ordered;
+            ordered = head;
+            head = next;
+        }
+        Signal following;
+        for (; ordered != null; ordered = following) {
+            following = ordered.next;
+            AbsActor<T> next = latest();
+            if (next != null)
+                next.signal(ordered);
+            else if (state != RUNNING)
+                continue;
+            else if (ordered.terminated != null)
+                watched(ordered.terminated);
+            else {
+                switch (ordered.directive) {
+                case RESTART:
+                    restart(ordered.cause, ordered.subtree);
+                    break;
+                case STOP:
+                    stopSelf();
+                    break;
+                case ESCALATE:
+                    fail(ordered.cause, true);
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the onTerminated hook, there's no sender
+     */
+    private void watched(ActorRef<? extends Message> actor) {
+        this.sender = null;
+        try {
+            onTerminated(new Terminated(actor));
+        } catch (NoSuchActorException | UnsupportedMessageException e) {
+            e.printStackTrace();
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Notify the actor that {@code actor}, watched by it, has been stopped
+     */
+    final void terminated(ActorRef<? extends Message> actor) {
+        signal(new Signal(null, null, actor, false));
+    }
+
+    /**
+     * Return the last instance replacing this one, compressing the chain of
+     * restarts so that the instances in between can be collected
+     * @return The current instance of the actor, or null if this one has
+     * never been restarted
+     */
+    private AbsActor<T> latest() {
+        AbsActor<T> last = successor;
+        if (last == null)
+            return null;
+        for (AbsActor<T> next; (next = last.successor) != null;)
+            last = next;
+        this.successor = last;
+        return last;
+    }
+
+    /**
+     * Schedule the actor if it's idle and there are messages in its mailbox,
+     * used when the mailbox is shared among many actors and a message has
+     * been enqueued without picking a specific one
+     * @return True if the actor has been scheduled, false if it's already
+     * scheduled, running, stopped or there's nothing to process
+     */
+    public final boolean wakeUp() {
+        return !mailBox.isEmpty() && schedule();
+    }
+
+    /**
+     * Schedule the receiving loop of the actor on the dispatcher if the actor
+     * is idle
+     * @return True if the actor has been scheduled
+     */
+    private boolean schedule() {
+        if (state == IDLE && STATE.compareAndSet(this, IDLE, SCHEDULED)) {
+            dispatcher.dispatch(receiveLoop);
+            return true;
+        }
+        AbsActor<T> next = successor;
+        return next != null && next.schedule();
+    }
+
+    /**
+     * Called by the receiving loop once it yields the thread, set the actor
+     * idle and reschedule it if there are still messages to be processed,
+     * otherwise hand over to the new instance if it's been restarted, or
+     * terminate it if it's stopping
+     */
+    private void release() {
+        // read before going idle, the actor may run on another thread right after
+        boolean pendingUnstashed = unstashed != null && !unstashed.isEmpty();
+        if (STATE.compareAndSet(this, RUNNING, IDLE)) {
+            if (pendingUnstashed || signals != null || !mailBox.isEmpty())
+                schedule();
+        } else {
+            AbsActor<T> next = successor;
+            if (next == null) {
+                terminate();
+                return;
+            }
+            // restarted, hand over the pending signals and run the new instance
+            synchronized (this) {
+                this.state = STOPPED;
+                notifyAll();
+            }
+            processSignals();
+            if (stopOnHandover)
+                next.stop();
+            else next.schedule();
+        }
+    }
+
+    /**
+     * A directive of the supervision, or the termination of a watched actor,
+     * node of the stack of pending signals
+     */
+    private static final class Signal {
+        final Directive directive;
+        final Throwable cause;
+        final ActorRef<? extends Message> terminated;
+        final boolean subtree;
+        Signal next;
+
+        Signal(Directive directive, Throwable cause, ActorRef<? extends Message> terminated,
+               boolean subtree) {
+            this.directive = directive;
+            this.cause = cause;
+            this.terminated = terminated;
+            this.subtree = subtree;
+        }
+    }
+
+    /**
+     * Runnable type, process at most {@code throughput} messages inside the
+     * mailbox, one by one or as a single batch, and then yields the thread
+     * back to the dispatcher
      */
     private class ReceiveLoop implements Runnable {
         @Override
         public void run() {
+            RUNNING_ACTOR.set(AbsActor.this);
+            if (!STATE.compareAndSet(AbsActor.this, SCHEDULED, RUNNING)) {
+                // stopped before being run, or while idle
+                try {
+                    terminate();
+                } finally {
+                    RUNNING_ACTOR.set(null);
+                }
+                return;
+            }
             /**
              * loop conditions:
-             * - actor must be alive
-             * - actor has already started looping
+             * - actor must be running
+             * - throughput batch not exhausted
+             * - mailbox not empty
              */
-            while (isAlive() && isLooping()) {
+            int throughput = dispatcher.getThroughput();
+            try {
+                if (signals != null)
+                    processSignals();
+                if (receiveTimedOut && state == RUNNING) {
+                    receiveTimedOut = false;
+                    if (!hasNext())
+                        timeout();
+                }
+                int n = 0;
+                if (batching) {
+                    if (state == RUNNING)
+                        n = processBatch(throughput);
+                } else {
+                    Envelope<T> envelope;
+                    for (; n < throughput && state == RUNNING && (envelope = next()) != null; n++)
+                        process(envelope);
+                }
+                if (n > 0 && receiveTimeout > 0)
+                    lastReceive = System.nanoTime();
+            } finally {
                 try {
-                    receive(getNextMessage());
-                } catch (NoSuchActorException | UnsupportedMessageException e) {
-                    e.printStackTrace();
+                    release();
+                } finally {
+                    RUNNING_ACTOR.set(null);
                 }
             }
         }
@@ -28,8 +28,14 @@ import java.net.MalformedURLException;
 import java.rmi.AlreadyBoundException;
 import java.rmi.Naming;
 import java.rmi.NotBoundException;
+import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import io.github.codepr.jas.actors.ActorSystem;
 import io.github.codepr.jas.actors.ActorSystem.SystemMode;
 import io.github.codepr.jas.actors.ActorSystem.ActorMode;
@@ -42,12 +48,17 @@ import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
 /**
  * A reference of an actor that allow to locate it in the actor system.
  * Using this reference it is possible to send a message among actors.
+ * <p/>
+ * References are plain objects living in the heap of the system that created
+ * them, they are exported to the RMI runtime only when the system runs in
+ * {@code SystemMode.CLUSTER}, so local actors don't pay for a remote object
+ * they never use.
  *
  * @author Andrea Giacomo Baldan
  * @version 2.0
  * @since 1.0
  */
-public abstract class AbsActorRef<T extends Message> extends UnicastRemoteObject implements ActorRef<T> {
+public abstract class AbsActorRef<T extends Message> implements ActorRef<T> {
 
     /**
      * Reference to the {@code system}
@@ -62,17 +73,37 @@ public abstract class AbsActorRef<T extends Message> extends UnicastRemoteObject
      * {@code Message} in case of remote communication
      */
     protected ActorRef<T> originalSender;
+    /**
+     * The local actor referenced, bound by the {@code system} on creation, if
+     * set sending a message to this reference doesn't require any lookup
+     */
+    private volatile AbsActor<T> actor;
+    /**
+     * Whether the reference has been exported to the RMI runtime
+     */
+    private volatile boolean exported;
+    /**
+     * References to notify once the actor is stopped, guarded by the
+     * reference itself
+     */
+    private List<ActorRef<? extends Message>> watchers;
+    /**
+     * Set once the actor is stopped and its watchers notified
+     */
+    private boolean terminated;
 
     /**
-     * Public constructor, in case of an {@code ActorRef} of type
-     * {@code ActorMode.REMOTE} bind the name to the RMI registry.
+     * Public constructor, in case the {@code system} runs in
+     * {@code SystemMode.CLUSTER} export the reference to the RMI runtime and
+     * bind the name to the RMI registry.
      */
     public AbsActorRef(ActorSystem system, ActorMode mode, String name) throws RemoteException {
-        super();
         this.system = (AbsActorSystem) system;
         this.name = name;
         this.originalSender = this;
         if (this.system.getSystemMode() == SystemMode.CLUSTER) {
+            UnicastRemoteObject.exportObject(this, 0);
+            this.exported = true;
             try {
                 Naming.bind("rmi://" + name, this);
             } catch (AlreadyBoundException | MalformedURLException e) {
@@ -81,6 +112,104 @@ public abstract class AbsActorRef<T extends Message> extends UnicastRemoteObject
         }
     }
 
+    /**
+     * Unbind the reference from the RMI registry and remove it from the RMI
+     * runtime, no-op for references that have never been exported.
+     */
+    final void unexport() {
+        if (!exported)
+            return;
+        exported = false;
+        try {
+            Naming.unbind("rmi://" + name);
+        } catch (RemoteException | NotBoundException | MalformedURLException e) {
+            e.printStackTrace();
+        }
+        try {
+            UnicastRemoteObject.unexportObject(this, true);
+        } catch (NoSuchObjectException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Bind the reference to the local actor it points to
+     *
+     * @param actor The local actor referenced
+     */
+    final void bind(AbsActor<T> actor) {
+        this.actor = actor;
+    }
+
+    /**
+     * Notify every watcher that the actor has been stopped, called once by
+     * the {@code system}. Unreachable watchers are skipped.
+     */
+    final void terminate() {
+        List<ActorRef<? extends Message>> notified;
+        synchronized (this) {
+            if (terminated)
+                return;
+            terminated = true;
+            notified = watchers;
+            watchers = null;
+        }
+        if (notified == null)
+            return;
+        for (ActorRef<? extends Message> watcher : notified) {
+            try {
+                watcher.notifyTerminated(this);
+            } catch (RemoteException | NoSuchActorException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Register {@code watcher} to be notified with a {@link Terminated} once
+     * this actor is stopped, right away if it's stopped already.
+     *
+     * @param watcher The actor to notify
+     */
+    @Override
+    public void watch(ActorRef<? extends Message> watcher) throws RemoteException {
+        synchronized (this) {
+            if (!terminated) {
+                if (watchers == null)
+                    watchers = new ArrayList<>(2);
+                if (!watchers.contains(watcher))
+                    watchers.add(watcher);
+                return;
+            }
+        }
+        watcher.notifyTerminated(this);
+    }
+
+    /**
+     * Stop notifying {@code watcher} of the termination of this actor
+     *
+     * @param watcher The actor not to notify anymore
+     */
+    @Override
+    public synchronized void unwatch(ActorRef<? extends Message> watcher) {
+        if (watchers != null)
+            watchers.remove(watcher);
+    }
+
+    /**
+     * Hand the termination of {@code actor} to the local actor referenced,
+     * to be processed on its own thread ahead of its messages, dropped if
+     * the actor is stopped.
+     *
+     * @param actor The reference of the stopped actor
+     */
+    @Override
+    public void notifyTerminated(ActorRef<? extends Message> actor) {
+        AbsActor<T> watcher = localActor(this);
+        if (watcher != null)
+            watcher.terminated(actor);
+    }
+
     /**
      * Set the {@code ActorRef} reference representing the original sender of
      * the {@code Message} in case of remote {@code ActorRef}.
@@ -115,7 +244,12 @@ public abstract class AbsActorRef<T extends Message> extends UnicastRemoteObject
      */
     @Override
     public void send(T message, ActorRef<T> to) throws RemoteException {
-        if (!system.contains(to)) {
+        if (to instanceof PromiseActorRef) {
+            ((PromiseActorRef<T>) to).complete(message);
+            return;
+        }
+        AbsActor<T> actor = localActor(to);
+        if (actor == null) {
             String destName = to.getName();
             if (system.containsRemote(destName)) {
                 String realDest = to.getOriginalSender().getName();
@@ -134,23 +268,114 @@ public abstract class AbsActorRef<T extends Message> extends UnicastRemoteObject
                     });
             } else throw new NoSuchActorException();
         } else {
+            actor.enqueue(message, originalSender);
+        }
+    }
+
+    /**
+     * Sends a batch of {@code messages} to another actor, preserving their
+     * order. Messages to a local actor are enqueued at once, scheduling the
+     * actor a single time, while messages to a remote actor are shipped with
+     * a single remote call.
+     *
+     * @param messages The messages to send
+     * @param to The actor to which sending the messages
+     */
+    @Override
+    public void sendAll(Collection<T> messages, ActorRef<T> to) throws RemoteException {
+        if (messages.isEmpty())
+            return;
+        if (to instanceof PromiseActorRef) {
+            ((PromiseActorRef<T>) to).complete(messages.iterator().next());
+            return;
+        }
+        AbsActor<T> actor = localActor(to);
+        if (actor == null) {
+            String destName = to.getName();
+            if (system.containsRemote(destName)) {
+                // the batch is serialized later, on a different thread
+                final Collection<T> batch = new ArrayList<>(messages);
+                system.startActorRunnable(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                ActorRef<T> remoteRef = (ActorRef<T>) Naming.lookup("rmi://" + destName);
+                                remoteRef.setOriginalSender(AbsActorRef.this);
+                                remoteRef.sendAll(batch, to);
+                            } catch (RemoteException | NotBoundException | MalformedURLException e) {
+                                e.printStackTrace();
+                            }
+                        }
+                    });
+            } else throw new NoSuchActorException();
+        } else {
+            actor.enqueueAll(messages, originalSender);
+        }
+    }
+
+    /**
+     * Sends the same {@code message} to every actor of {@code to}. The
+     * message is delivered to every actor that can be reached even if some
+     * of them can't.
+     *
+     * @param message The message to send, shared by all the receivers
+     * @param to The actors to which sending the message
+     * @throws NoSuchActorException if some of the actors can't be found,
+     * after the message has been sent to the others
+     */
+    @Override
+    public void broadcast(T message, Collection<ActorRef<T>> to) throws RemoteException {
+        NoSuchActorException missing = null;
+        for (ActorRef<T> ref : to) {
             try {
-                if (originalSender == this)
-                    ((AbsActor<T>) system.getActor(to)).setSender(this);
-                else
-                    ((AbsActor<T>) system.getActor(to)).setSender(this.originalSender);
-                ((AbsActor<T>) system.getActor(to)).enqueue(message);
+                send(message, ref);
             } catch (NoSuchActorException e) {
-                throw e;
+                missing = e;
             }
         }
+        if (missing != null)
+            throw missing;
     }
 
     /**
-     * Execute a runnable using {@code system}
-     * @param receivingLoop Runnable type to be executed
+     * Sends a {@code message} to a local actor, returning a future completed
+     * by its reply. The reply is collected by a temporary reference used as
+     * sender of the message, no actor is created to wait for it.
+     * <p/>
+     * Asking a remote actor is not supported, as the temporary reference is
+     * not exported to the RMI runtime.
+     *
+     * @param message The message to send
+     * @param to The actor to which sending the message
+     * @param timeout The maximum time to wait for the reply
+     * @param unit The time unit of {@code timeout}
+     * @return A {@code CompletableFuture} completed by the reply
+     * @throws NoSuchActorException if {@code to} is not a local actor
+     */
+    @Override
+    public CompletableFuture<T> ask(T message, ActorRef<T> to, long timeout, TimeUnit unit) throws RemoteException {
+        AbsActor<T> actor = localActor(to);
+        if (actor == null)
+            throw new NoSuchActorException();
+        PromiseActorRef<T> promise = new PromiseActorRef<>(system, timeout, unit);
+        actor.enqueue(message, promise);
+        return promise.getFuture();
+    }
+
+    /**
+     * Return the local actor referenced by {@code ref}
+     *
+     * @param ref The reference to resolve
+     * @return The actor or {@code null} if {@code ref} doesn't reference a
+     * local actor
      */
-    public void startReceivingLoop(Runnable actorRunnable) throws RemoteException {
-        system.startActorRunnable(actorRunnable);
+    private AbsActor<T> localActor(ActorRef<T> ref) {
+        AbsActor<T> actor = null;
+        // local references are bound to their actor, no need to lookup
+        if (ref instanceof AbsActorRef)
+            actor = ((AbsActorRef<T>) ref).actor;
+        if (actor == null)
+            actor = (AbsActor<T>) system.findActor(ref);
+        return actor;
     }
 }
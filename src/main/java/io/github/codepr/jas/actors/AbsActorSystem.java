@@ -27,10 +27,20 @@ package io.github.codepr.jas.actors;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import io.github.codepr.jas.actors.dispatcher.Dispatcher;
 import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import io.github.codepr.jas.actors.mailbox.MailBox;
+import io.github.codepr.jas.actors.routers.Pool;
+import io.github.codepr.jas.actors.scheduler.Cancellable;
+import io.github.codepr.jas.actors.scheduler.Scheduler;
 
 /**
  * A map-based implementation of the actor system.
@@ -57,6 +67,20 @@ public abstract class AbsActorSystem implements ActorSystem {
      * single machine, or {@code CLUSTER} to run on a cluster of multiple nodes.
      */
     private final SystemMode systemMode;
+    /**
+     * Sequence of the ids assigned to unnamed actors
+     */
+    private final AtomicLong nextId = new AtomicLong();
+    /**
+     * Random identifier of the system, qualifies generated names visible
+     * outside of it, e.g. bound to the RMI registry
+     */
+    private final String uid = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    /**
+     * Address of the host, resolved on the first {@code ActorMode.REMOTE}
+     * actor created without a name
+     */
+    private volatile String host;
 
     public AbsActorSystem() {
         this.actors = new ConcurrentHashMap<>();
@@ -98,30 +122,126 @@ public abstract class AbsActorSystem implements ActorSystem {
      * @param name The name of the actor inside the cluster, must be unique
      *
      * @return A reference to the actor
+     * @throws IllegalArgumentException if {@code name} starts with {@code $},
+     * reserved to generated names
      */
     @Override
     public ActorRef<? extends Message> actorOf(Class<? extends Actor> actor, ActorMode mode, String name) {
-        // ActorRef instance
-        ActorRef<? extends Message> reference;
-        try {
-            // Create the reference to the actor
-            reference = this.createActorReference(mode, name);
-            // Create the new instance of the actor
-            Actor<? extends Message> actorInstance =
-                ((AbsActor) actor.newInstance()).setSelf(reference);
-            // Associate the reference to the actor
-            if (mode == ActorMode.LOCAL)
-                actors.put(name, actorInstance);
-            else remoteActors.put(name, reference);
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new NoSuchActorException(e);
-        }
+        return actorOf(actor, mode, name, null);
+    }
+
+    /**
+     * Create an instance of {@code actor} returning a {@link ActorRef reference}
+     * to it using the given {@code mode}, a name and a custom mailbox.
+     *
+     * @param actor The type of actor that has to be created
+     * @param mode The mode of the actor requested
+     * @param name The name of the actor inside the cluster, must be unique
+     * @param mailBox Factory of the mailbox used by the actor, if null the
+     * default mailbox is used
+     *
+     * @return A reference to the actor
+     * @throws IllegalArgumentException if {@code name} starts with {@code $},
+     * reserved to generated names
+     */
+    @Override
+    public ActorRef<? extends Message> actorOf(Class<? extends Actor> actor, ActorMode mode, String name,
+                                               Supplier<? extends MailBox> mailBox) {
+        Props props = Props.create(actor);
+        return actorOf(mailBox == null ? props : props.withMailBox(mailBox), mode, name);
+    }
+
+    /**
+     * Create an actor described by {@code props} returning a
+     * {@link ActorRef reference} to it using the given {@code mode} and a
+     * name.
+     *
+     * @param props The recipe of the actor that has to be created
+     * @param mode The mode of the actor requested
+     * @param name The name of the actor inside the cluster, must be unique
+     *
+     * @return A reference to the actor
+     * @throws IllegalArgumentException if {@code name} starts with {@code $},
+     * reserved to generated names
+     */
+    @Override
+    public ActorRef<? extends Message> actorOf(Props props, ActorMode mode, String name) {
+        if (name.startsWith("$"))
+            throw new IllegalArgumentException("Names starting with $ are reserved: " + name);
+        return actorOf(props, mode, name, null);
+    }
+
+    /**
+     * Create a local child of {@code parent} described by {@code props},
+     * generating a unique name.
+     *
+     * @param props The recipe of the actor that has to be created
+     * @param parent The supervisor of the actor
+     *
+     * @return A reference to the actor
+     */
+    ActorRef<? extends Message> actorOf(Props props, AbsActor<?> parent) {
+        return actorOf(props, ActorMode.LOCAL, generateName(ActorMode.LOCAL), parent);
+    }
+
+    private ActorRef<? extends Message> actorOf(Props props, ActorMode mode, String name, AbsActor<?> parent) {
+        // Create the new instance of the actor, or a router in front of a pool
+        // of them
+        AbsActor actorInstance;
+        Pool router = props.getRouter();
+        if (router != null) {
+            if (mode != ActorMode.LOCAL)
+                throw new IllegalArgumentException("Routers can only be created locally");
+            actorInstance = router.createRouter(this, props.withRouter(null));
+        } else actorInstance = props.newActor();
+        // Create the reference to the actor
+        ActorRef<? extends Message> reference = this.createActorReference(mode, name);
+        actorInstance.setSelf(reference);
+        Dispatcher own = router == null ? props.newDispatcher() : null;
+        actorInstance.setDispatcher(own == null ? getDispatcher() : own);
+        actorInstance.setScheduler(getScheduler());
+        // Routers are not restarted, their routees are
+        actorInstance.setContext(this, router == null ? props : null, parent);
+        if (parent != null)
+            parent.addChild(actorInstance);
+        // Associate the reference to the actor
+        if (mode == ActorMode.LOCAL) {
+            actors.put(name, actorInstance);
+            ((AbsActorRef) reference).bind(actorInstance);
+        } else remoteActors.put(name, reference);
+        actorInstance.preStart();
         return reference;
     }
 
+    /**
+     * Create an actor described by {@code props} returning a
+     * {@link ActorRef reference} to it using the given {@code mode},
+     * generating a unique name.
+     *
+     * @param props The recipe of the actor that has to be created
+     * @param mode The mode of the actor requested
+     *
+     * @return A reference to the actor
+     */
+    @Override
+    public ActorRef<? extends Message> actorOf(Props props, ActorMode mode) {
+        return actorOf(props, mode, generateName(mode), null);
+    }
+
+    /**
+     * Create an actor described by {@code props} that executes locally.
+     *
+     * @param props The recipe of the actor that has to be created
+     * @return A reference to the actor
+     */
+    @Override
+    public ActorRef<? extends Message> actorOf(Props props) {
+        return actorOf(props, ActorMode.LOCAL);
+    }
+
     /**
      * Create an instance of {@code actor} returning a {@link ActorRef reference}
-     * to it using the given {@code mode}, generating a UUID as name.
+     * to it using the given {@code mode}, generating a unique name.
      *
      * @param actor The type of actor that has to be created
      * @param mode The mode of the actor requested
@@ -130,16 +250,7 @@ public abstract class AbsActorSystem implements ActorSystem {
      */
     @Override
     public ActorRef<? extends Message> actorOf(Class<? extends Actor> actor, ActorMode mode) {
-        // default to localhost
-        String host = "127.0.0.1";
-        if (mode == ActorMode.REMOTE) {
-            try {
-                host = InetAddress.getLocalHost().getHostAddress();
-            } catch (UnknownHostException e) {
-                e.printStackTrace();
-            }
-            return actorOf(actor, mode, host + "/" + UUID.randomUUID().toString());
-        } else return actorOf(actor, mode, UUID.randomUUID().toString());
+        return actorOf(Props.create(actor), mode, generateName(mode), null);
     }
 
     /**
@@ -154,7 +265,63 @@ public abstract class AbsActorSystem implements ActorSystem {
     }
 
     /**
-     * Stops {@code actor}.
+     * Create an instance of {@code actor} that executes locally using a custom
+     * mailbox.
+     *
+     * @param actor The type of actor that has to be created
+     * @param mailBox Factory of the mailbox used by the actor
+     * @return A reference to the actor
+     */
+    @Override
+    public ActorRef<? extends Message> actorOf(Class<? extends Actor> actor, Supplier<? extends MailBox> mailBox) {
+        Props props = Props.create(actor);
+        return actorOf(mailBox == null ? props : props.withMailBox(mailBox), ActorMode.LOCAL,
+                       generateName(ActorMode.LOCAL), null);
+    }
+
+    /**
+     * Generate a unique name for an actor from a per-system counter, e.g.
+     * {@code $1a}; names starting with {@code $} are reserved to generated
+     * ones. Names of actors visible outside of a {@code SystemMode.DEFAULT}
+     * system are qualified with the id of the system and, in case of
+     * {@code ActorMode.REMOTE}, prefixed with the address of the host.
+     *
+     * @param mode The mode of the actor requested
+     * @return A unique name for the actor
+     */
+    private String generateName(ActorMode mode) {
+        String id = "$" + Long.toString(nextId.incrementAndGet(), 36);
+        if (mode == ActorMode.LOCAL && systemMode == SystemMode.DEFAULT)
+            return id;
+        if (mode == ActorMode.REMOTE)
+            return getHost() + "/" + uid + id;
+        return uid + id;
+    }
+
+    /**
+     * Return the address of the host, defaults to localhost if it cannot be
+     * resolved.
+     */
+    private String getHost() {
+        String address = host;
+        if (address == null) {
+            // default to localhost
+            address = "127.0.0.1";
+            try {
+                address = InetAddress.getLocalHost().getHostAddress();
+            } catch (UnknownHostException e) {
+                e.printStackTrace();
+            }
+            host = address;
+        }
+        return address;
+    }
+
+    /**
+     * Stops {@code actor}, after its children. Called by an actor it never
+     * blocks, the messages left in the mailbox of the stopped actor are
+     * processed on the dispatcher; called from any other thread it waits for
+     * them to be processed.
      *
      * @param actor The actor to be stopped
      */
@@ -167,21 +334,63 @@ public abstract class AbsActorSystem implements ActorSystem {
         if (!actors.containsKey(name)) {
             throw new NoSuchActorException();
         }
-        ((AbsActor<? extends Message>) actors.get(name)).stop();
-        actors.remove(name);
+        AbsActor<? extends Message> stopped = (AbsActor<? extends Message>) actors.remove(name);
+        for (AbsActor<?> child : stopped.getChildActors()) {
+            try {
+                stop(child.self);
+            } catch (NoSuchActorException e) {
+                // already stopped
+            }
+        }
+        stopped.stop();
+        AbsActor<?> parent = stopped.getParentActor();
+        if (parent != null)
+            parent.removeChild(stopped);
+        if (!AbsActor.onActorThread())
+            stopped.awaitTermination();
     }
 
     /**
-     * Stops all actors of the system.
+     * Stops all actors of the system, waiting for the messages left in their
+     * mailboxes to be processed unless called by an actor.
      */
     @Override
     public void stop() {
-        actors.entrySet()
-            .stream()
-            .forEach(x -> ((AbsActor<? extends Message>) x.getValue()).stop());
+        List<AbsActor<? extends Message>> stopped = new ArrayList<>(actors.size());
+        actors.values().forEach(x -> stopped.add((AbsActor<? extends Message>) x));
+        stopped.forEach(AbsActor::stop);
+        if (!AbsActor.onActorThread())
+            stopped.forEach(AbsActor::awaitTermination);
         actors.clear();
     }
 
+    /**
+     * Release what a stopped actor holds, notifying its watchers: its remote
+     * reference and its own dispatcher, if any. Called by the actor once the
+     * messages left in its mailbox have been processed.
+     */
+    void release(AbsActor<? extends Message> stopped) {
+        ((AbsActorRef<? extends Message>) stopped.self).terminate();
+        ((AbsActorRef<? extends Message>) stopped.self).unexport();
+        Dispatcher dispatcher = stopped.getDispatcher();
+        if (dispatcher != getDispatcher())
+            dispatcher.shutdown();
+    }
+
+    /**
+     * Associate the name and the reference of a restarted actor to its new
+     * instance, unless the actor has been stopped in the meantime
+     */
+    @SuppressWarnings("unchecked")
+    void restarted(AbsActor<? extends Message> failed, AbsActor<? extends Message> fresh) {
+        try {
+            actors.replace(failed.self.getName(), failed, fresh);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+        ((AbsActorRef) failed.self).bind(fresh);
+    }
+
     /**
      * Check if the current {@code ActorSystem} contains a given {@code ActorRef}
      */
@@ -208,6 +417,21 @@ public abstract class AbsActorSystem implements ActorSystem {
         remoteActors.put(name, remoteRef);
     }
 
+    /**
+     * Return the actor associated to a given ActorRef inside the HashMap, if
+     * it's a local one
+     *
+     * @param ref reference to ActorRef
+     * @return The actor associated to ref, or null if no actor was found
+     */
+    public Actor<? extends Message> findActor(ActorRef<? extends Message> ref) {
+        try {
+            return actors.get(ref.getName());
+        } catch (RemoteException e) {
+            return null;
+        }
+    }
+
     /**
      * Return the actor associated to a given ActorRef inside the HashMap
      *
@@ -226,12 +450,131 @@ public abstract class AbsActorSystem implements ActorSystem {
 
     /**
      * Execute a runnable with {@code eService} instance of Executor, used to
-     * start the consuming loop of every actor's mailbox.
+     * run remote communications off the caller thread.
      *
      * @param receivingLoop Runnable type to be executed
      */
     public abstract void startActorRunnable(Runnable actorRunnable);
 
+    /**
+     * Return the {@link Dispatcher} used to schedule the processing of every
+     * actor's mailbox.
+     *
+     * @return The dispatcher of the system
+     */
+    public abstract Dispatcher getDispatcher();
+
+    /**
+     * Return the {@link Scheduler} running delayed tasks of the system, e.g.
+     * timeouts of {@link ActorRef#ask ask} or scheduled messages. Tasks run
+     * on a thread of the system and must be short.
+     *
+     * @return The scheduler of the system
+     */
+    public abstract Scheduler getScheduler();
+
+    /**
+     * Send {@code message} to {@code to} once after {@code delay}, the
+     * message is dropped if the actor is stopped in the meantime.
+     *
+     * @param delay The time to wait before sending the message
+     * @param unit The time unit of {@code delay}
+     * @param message The message to send
+     * @param to The actor receiving the message, also its sender
+     * @return A handle to cancel the delivery
+     */
+    @Override
+    public <T extends Message> Cancellable scheduleOnce(long delay, TimeUnit unit, T message, ActorRef<T> to) {
+        return getScheduler().scheduleOnce(delay, unit, () -> deliver(message, to, null));
+    }
+
+    /**
+     * Send {@code message} to {@code to} after {@code initialDelay} and then
+     * every {@code period}, until cancelled or the actor is stopped.
+     *
+     * @param initialDelay The time to wait before sending the message the
+     * first time
+     * @param period The time between two deliveries
+     * @param unit The time unit of {@code initialDelay} and {@code period}
+     * @param message The message to send
+     * @param to The actor receiving the message, also its sender
+     * @return A handle to stop the deliveries
+     */
+    @Override
+    public <T extends Message> Cancellable scheduleAtFixedRate(long initialDelay, long period, TimeUnit unit,
+                                                               T message, ActorRef<T> to) {
+        PeriodicDelivery<T> delivery = new PeriodicDelivery<>(message, to);
+        delivery.start(initialDelay, period, unit);
+        return delivery;
+    }
+
+    /**
+     * Periodic task sending a message, its own handle, so that the task can
+     * cancel itself from its very first run, before the scheduler returns
+     */
+    private final class PeriodicDelivery<T extends Message> implements Cancellable, Runnable {
+
+        private final T message;
+        private final ActorRef<T> to;
+
+        /**
+         * Handle of the task on the scheduler, set once started
+         */
+        private volatile Cancellable timer;
+
+        private volatile boolean cancelled;
+
+        PeriodicDelivery(T message, ActorRef<T> to) {
+            this.message = message;
+            this.to = to;
+        }
+
+        void start(long initialDelay, long period, TimeUnit unit) {
+            Cancellable started = getScheduler().scheduleAtFixedRate(initialDelay, period, unit, this);
+            timer = started;
+            // cancelled before the handle was set
+            if (cancelled)
+                started.cancel();
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled)
+                deliver(message, to, this);
+        }
+
+        @Override
+        public synchronized boolean cancel() {
+            if (cancelled)
+                return false;
+            cancelled = true;
+            Cancellable started = timer;
+            if (started != null)
+                started.cancel();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Send a scheduled message, cancelling {@code timer} if the receiver is
+     * gone
+     */
+    private <T extends Message> void deliver(T message, ActorRef<T> to, Cancellable timer) {
+        try {
+            to.send(message, to);
+        } catch (NoSuchActorException e) {
+            if (timer != null)
+                timer.cancel();
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Create an instance of {@link ActorRef}
      *
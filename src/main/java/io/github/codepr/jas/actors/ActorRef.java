@@ -26,6 +26,9 @@ package io.github.codepr.jas.actors;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A reference of an actor that allow to locate it in the actor system.
@@ -63,4 +66,59 @@ public interface ActorRef<T extends Message> extends Remote {
      * @param to The actor to which sending the message
      */
     void send(T message, ActorRef<T> to) throws RemoteException;
+
+    /**
+     * Sends a batch of {@code messages} to another actor, preserving their
+     * order
+     *
+     * @param messages The messages to send
+     * @param to The actor to which sending the messages
+     */
+    void sendAll(Collection<T> messages, ActorRef<T> to) throws RemoteException;
+
+    /**
+     * Sends the same {@code message} to every actor of {@code to}
+     *
+     * @param message The message to send
+     * @param to The actors to which sending the message
+     */
+    void broadcast(T message, Collection<ActorRef<T>> to) throws RemoteException;
+
+    /**
+     * Sends a {@code message} to another actor, returning a future completed
+     * by the first message the actor sends back to its {@code sender}, or
+     * exceptionally with a {@code TimeoutException} if no reply arrives
+     * within {@code timeout}.
+     *
+     * @param message The message to send
+     * @param to The actor to which sending the message, must be local
+     * @param timeout The maximum time to wait for the reply
+     * @param unit The time unit of {@code timeout}
+     * @return A {@code CompletableFuture} completed by the reply
+     */
+    CompletableFuture<T> ask(T message, ActorRef<T> to, long timeout, TimeUnit unit) throws RemoteException;
+
+    /**
+     * Register {@code watcher} to be notified with a {@link Terminated} once
+     * this actor is stopped, right away if it's stopped already. Watching
+     * the same actor twice has no effect.
+     *
+     * @param watcher The actor to notify
+     */
+    void watch(ActorRef<? extends Message> watcher) throws RemoteException;
+
+    /**
+     * Stop notifying {@code watcher} of the termination of this actor
+     *
+     * @param watcher The actor not to notify anymore
+     */
+    void unwatch(ActorRef<? extends Message> watcher) throws RemoteException;
+
+    /**
+     * Notify this actor that {@code actor}, watched by it, has been stopped,
+     * called by the system of the stopped actor
+     *
+     * @param actor The reference of the stopped actor
+     */
+    void notifyTerminated(ActorRef<? extends Message> actor) throws RemoteException;
 }
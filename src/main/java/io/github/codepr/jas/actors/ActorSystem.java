@@ -25,6 +25,10 @@
 package io.github.codepr.jas.actors;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import io.github.codepr.jas.actors.mailbox.MailBox;
+import io.github.codepr.jas.actors.scheduler.Cancellable;
 
 /**
  * The system of actors. Using the system it is possible to:
@@ -60,12 +64,31 @@ public interface ActorSystem {
      * @param name The name of the actor inside the cluster, must be unique
      *
      * @return A reference to the actor
+     * @throws IllegalArgumentException if {@code name} starts with {@code $},
+     * reserved to generated names
      */
     ActorRef<? extends Message> actorOf(Class<? extends Actor> actor, ActorMode mode, String name);
 
     /**
      * Create an instance of {@code actor} returning a {@link ActorRef reference}
-     * to it using the given {@code mode}, generating a UUID as name.
+     * to it using the given {@code mode}, a name and a custom mailbox, e.g. a
+     * {@link io.github.codepr.jas.actors.mailbox.BoundedMailBox bounded} one.
+     *
+     * @param actor The type of actor that has to be created
+     * @param mode The mode of the actor requested
+     * @param name The name of the actor inside the cluster, must be unique
+     * @param mailBox Factory of the mailbox used by the actor
+     *
+     * @return A reference to the actor
+     * @throws IllegalArgumentException if {@code name} starts with {@code $},
+     * reserved to generated names
+     */
+    ActorRef<? extends Message> actorOf(Class<? extends Actor> actor, ActorMode mode, String name,
+                                        Supplier<? extends MailBox> mailBox);
+
+    /**
+     * Create an instance of {@code actor} returning a {@link ActorRef reference}
+     * to it using the given {@code mode}, generating a unique name.
      *
      * @param actor The type of actor that has to be created
      * @param mode The mode of the actor requested
@@ -82,6 +105,78 @@ public interface ActorSystem {
      */
     ActorRef<? extends Message> actorOf(Class<? extends Actor> actor);
 
+    /**
+     * Create an instance of {@code actor} that executes locally using a custom
+     * mailbox.
+     *
+     * @param actor The type of actor that has to be created
+     * @param mailBox Factory of the mailbox used by the actor
+     * @return A reference to the actor
+     */
+    ActorRef<? extends Message> actorOf(Class<? extends Actor> actor, Supplier<? extends MailBox> mailBox);
+
+    /**
+     * Create an actor described by {@code props} returning a
+     * {@link ActorRef reference} to it using the given {@code mode} and a
+     * name.
+     *
+     * @param props The recipe of the actor that has to be created
+     * @param mode The mode of the actor requested
+     * @param name The name of the actor inside the cluster, must be unique
+     *
+     * @return A reference to the actor
+     * @throws IllegalArgumentException if {@code name} starts with {@code $},
+     * reserved to generated names
+     */
+    ActorRef<? extends Message> actorOf(Props props, ActorMode mode, String name);
+
+    /**
+     * Create an actor described by {@code props} returning a
+     * {@link ActorRef reference} to it using the given {@code mode},
+     * generating a unique name.
+     *
+     * @param props The recipe of the actor that has to be created
+     * @param mode The mode of the actor requested
+     *
+     * @return A reference to the actor
+     */
+    ActorRef<? extends Message> actorOf(Props props, ActorMode mode);
+
+    /**
+     * Create an actor described by {@code props} that executes locally.
+     *
+     * @param props The recipe of the actor that has to be created
+     * @return A reference to the actor
+     */
+    ActorRef<? extends Message> actorOf(Props props);
+
+    /**
+     * Send {@code message} to {@code to} once after {@code delay}, without
+     * blocking any thread in the meantime.
+     *
+     * @param delay The time to wait before sending the message
+     * @param unit The time unit of {@code delay}
+     * @param message The message to send
+     * @param to The actor receiving the message
+     * @return A handle to cancel the delivery
+     */
+    <T extends Message> Cancellable scheduleOnce(long delay, TimeUnit unit, T message, ActorRef<T> to);
+
+    /**
+     * Send {@code message} to {@code to} after {@code initialDelay} and then
+     * every {@code period}, until cancelled or the actor is stopped.
+     *
+     * @param initialDelay The time to wait before sending the message the
+     * first time
+     * @param period The time between two deliveries
+     * @param unit The time unit of {@code initialDelay} and {@code period}
+     * @param message The message to send
+     * @param to The actor receiving the message
+     * @return A handle to stop the deliveries
+     */
+    <T extends Message> Cancellable scheduleAtFixedRate(long initialDelay, long period, TimeUnit unit,
+                                                        T message, ActorRef<T> to);
+
     /**
      * Stops {@code actor}.
      *
@@ -114,4 +209,16 @@ public interface ActorSystem {
         DEFAULT,
         CLUSTER
     }
+
+    /**
+     * Possible modes to execute actors of an {@code ActorSystem}.
+     * {@code FORK_JOIN} mode is the default choice and schedules actors on a
+     * bounded pool of platform threads, {@code VIRTUAL_THREADS} mode runs
+     * every scheduled actor on a virtual thread, suited for actors that block
+     * inside {@code receive}.
+     */
+    enum ExecutionMode {
+        FORK_JOIN,
+        VIRTUAL_THREADS
+    }
 }
@@ -29,6 +29,11 @@ import java.rmi.RemoteException;
 import java.util.concurrent.ExecutorService;
 import io.github.codepr.jas.actors.AbsActorSystem;
 import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.dispatcher.Dispatcher;
+import io.github.codepr.jas.actors.dispatcher.ForkJoinDispatcher;
+import io.github.codepr.jas.actors.dispatcher.VirtualThreadDispatcher;
+import io.github.codepr.jas.actors.scheduler.HashedWheelScheduler;
+import io.github.codepr.jas.actors.scheduler.Scheduler;
 
 /**
  * A map-based implementation of the actor system, can handle local actors and
@@ -41,24 +46,78 @@ import io.github.codepr.jas.actors.ActorRef;
 public class ActorSystemImpl extends AbsActorSystem {
 
     /**
-     * ExecutorService to generate a thread pool
+     * ExecutorService to generate a thread pool for remote communications
      */
     private ExecutorService eService;
 
+    /**
+     * Dispatcher scheduling actors with pending messages on a bounded pool
+     */
+    private final Dispatcher dispatcher;
+
+    /**
+     * Timing wheel running delayed tasks on a single daemon thread, e.g.
+     * timeouts of {@code ask} and scheduled messages
+     */
+    private final Scheduler scheduler = new HashedWheelScheduler();
+
     /**
      * Constructor to initialize {@code eService} as a {@code newCachedThreadPool}
+     * and {@code dispatcher} as a {@code ForkJoinDispatcher}
      */
     public ActorSystemImpl() {
         super();
         eService = Executors.newCachedThreadPool();
+        dispatcher = new ForkJoinDispatcher();
     }
 
     /**
      * Constructor to initialize {@code eService} as a {@code newCachedThreadPool}
+     * and {@code dispatcher} as a {@code ForkJoinDispatcher}
      */
     public ActorSystemImpl(SystemMode systemMode) {
         super(systemMode);
         eService = Executors.newCachedThreadPool();
+        dispatcher = new ForkJoinDispatcher();
+    }
+
+    /**
+     * Constructor to initialize {@code eService} as a {@code newCachedThreadPool}
+     * and {@code dispatcher} according to the given {@code ExecutionMode}
+     *
+     * @param systemMode The mode of the system, either local or cluster
+     * @param executionMode The mode used to execute actors, either on a
+     * fork-join pool or on virtual threads
+     * @throws UnsupportedOperationException if virtual threads are requested
+     * and the running JVM does not support them
+     */
+    public ActorSystemImpl(SystemMode systemMode, ExecutionMode executionMode) {
+        super(systemMode);
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            try {
+                dispatcher = new VirtualThreadDispatcher();
+            } catch (UnsupportedOperationException e) {
+                scheduler.shutdown();
+                throw e;
+            }
+        } else dispatcher = new ForkJoinDispatcher();
+        eService = Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Constructor to initialize {@code eService} as a {@code newCachedThreadPool}
+     * and {@code dispatcher} as a {@code ForkJoinDispatcher} with the given
+     * parallelism level and throughput
+     *
+     * @param systemMode The mode of the system, either local or cluster
+     * @param parallelism The number of threads used to process actors' mailboxes
+     * @param throughput The maximum number of messages processed by an actor
+     * before yielding the thread
+     */
+    public ActorSystemImpl(SystemMode systemMode, int parallelism, int throughput) {
+        super(systemMode);
+        eService = Executors.newCachedThreadPool();
+        dispatcher = new ForkJoinDispatcher(parallelism, throughput);
     }
 
     /**
@@ -81,12 +140,14 @@ public class ActorSystemImpl extends AbsActorSystem {
 
     /**
      * Stops all the actors of the system, clear the container (map) and shutdown
-     * executor service instance {@code eService}
+     * executor service instance {@code eService} and {@code dispatcher}
      */
     @Override
     public void stop() {
         super.stop();
         eService.shutdown();
+        dispatcher.shutdown();
+        scheduler.shutdown();
     }
 
     /**
@@ -98,4 +159,25 @@ public class ActorSystemImpl extends AbsActorSystem {
     public void startActorRunnable(Runnable actorRunnable) {
         eService.execute(actorRunnable);
     }
+
+    /**
+     * Return the {@link Dispatcher} used to schedule the processing of every
+     * actor's mailbox.
+     *
+     * @return The dispatcher of the system
+     */
+    @Override
+    public Dispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Return the {@link Scheduler} running delayed tasks of the system
+     *
+     * @return The scheduler of the system
+     */
+    @Override
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
 }
@@ -0,0 +1,197 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors;
+
+import io.github.codepr.jas.actors.exceptions.UnsupportedMessageException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable table of handlers, one per message class, describing how an
+ * actor reacts to the messages it receives, e.g.
+ * <pre>
+ * Behavior.&lt;CounterMessage&gt;builder()
+ *     .match(Increment.class, m -&gt; counter++)
+ *     .match(Get.class, m -&gt; reply(counter))
+ *     .build();
+ * </pre>
+ * An actor switches to a behavior with {@link AbsActor#become become}. The
+ * handler of a message is the first one registered for its class or one of
+ * its supertypes, resolved once per message class and cached in a
+ * copy-on-write table of the behavior, so dispatching a message takes
+ * constant time whatever the number of handlers, instead of walking an
+ * {@code instanceof} chain. Handlers are still invoked through a single
+ * {@code Consumer.accept} call site shared by every behavior, which turns
+ * megamorphic as soon as a few handlers are in use, so handlers are not
+ * inlined into the dispatch.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public final class Behavior<T extends Message> {
+
+    /**
+     * Handler of the messages without a handler of their own
+     */
+    private static final Consumer<Object> UNHANDLED = message -> {
+        throw new UnsupportedMessageException((Message) message);
+    };
+
+    /**
+     * Types handled, in order of registration
+     */
+    private final Class<?>[] types;
+
+    /**
+     * Handlers of the types, same order as {@code types}
+     */
+    private final Consumer<Object>[] handlers;
+
+    /**
+     * Handler of every other message, unsupported by default
+     */
+    private final Consumer<Object> fallback;
+
+    /**
+     * Handler of every message class seen so far, replaced by a copy on
+     * every miss, as behaviors may be shared by actors on different threads
+     */
+    private volatile Map<Class<?>, Consumer<Object>> cache = Collections.emptyMap();
+
+    private Behavior(Class<?>[] types, Consumer<Object>[] handlers, Consumer<Object> fallback) {
+        this.types = types;
+        this.handlers = handlers;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Create a builder of a behavior
+     *
+     * @return An empty builder
+     */
+    public static <T extends Message> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Apply the handler of {@code message}
+     *
+     * @param message The message to be handled
+     * @throws UnsupportedMessageException if no handler matches the message
+     */
+    public void apply(T message) {
+        handlerOf(message.getClass()).accept(message);
+    }
+
+    /**
+     * Check if the behavior handles {@code message}
+     *
+     * @param message The message to be checked
+     * @return True if a handler matches the message, false otherwise
+     */
+    public boolean isDefinedAt(T message) {
+        return handlerOf(message.getClass()) != UNHANDLED;
+    }
+
+    /**
+     * Return the handler of the messages of class {@code type}, resolving it
+     * on first use
+     */
+    private Consumer<Object> handlerOf(Class<?> type) {
+        Map<Class<?>, Consumer<Object>> current = cache;
+        Consumer<Object> handler = current.get(type);
+        if (handler != null)
+            return handler;
+        handler = fallback;
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].isAssignableFrom(type)) {
+                handler = handlers[i];
+                break;
+            }
+        }
+        // a racing miss may be lost, the handler is resolved again
+        Map<Class<?>, Consumer<Object>> next = new IdentityHashMap<>(current);
+        next.put(type, handler);
+        cache = next;
+        return handler;
+    }
+
+    /**
+     * Builder of a {@link Behavior}, handlers are matched in order of
+     * registration
+     */
+    public static final class Builder<T extends Message> {
+
+        private final List<Class<?>> types = new ArrayList<>();
+        private final List<Consumer<Object>> handlers = new ArrayList<>();
+        private Consumer<Object> fallback = UNHANDLED;
+
+        private Builder() {}
+
+        /**
+         * Handle the messages of class {@code type}, or of one of its
+         * subclasses, with {@code handler}
+         *
+         * @param type The class of the messages
+         * @param handler The handler of the messages
+         * @return This builder
+         */
+        @SuppressWarnings("unchecked")
+        public <M extends T> Builder<T> match(Class<M> type, Consumer<? super M> handler) {
+            types.add(type);
+            handlers.add((Consumer<Object>) handler);
+            return this;
+        }
+
+        /**
+         * Handle every message not matched by another handler with
+         * {@code handler}
+         *
+         * @param handler The handler of the messages
+         * @return This builder
+         */
+        @SuppressWarnings("unchecked")
+        public Builder<T> matchAny(Consumer<? super T> handler) {
+            this.fallback = (Consumer<Object>) handler;
+            return this;
+        }
+
+        /**
+         * Create the behavior
+         *
+         * @return An immutable behavior with the handlers registered so far
+         */
+        @SuppressWarnings("unchecked")
+        public Behavior<T> build() {
+            return new Behavior<>(types.toArray(new Class<?>[0]),
+                                  handlers.toArray(new Consumer[0]), fallback);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import io.github.codepr.jas.actors.scheduler.Cancellable;
+
+/**
+ * Temporary reference used as sender of a message sent with
+ * {@link ActorRef#ask ask}, or of a request sent to many actors by a router:
+ * the first message sent to it completes the future, further replies are
+ * discarded. If no reply arrives in time the future is completed with a
+ * {@code TimeoutException}.
+ * <p/>
+ * It is a plain reply slot, not an actor: it has no mailbox, is never
+ * scheduled and is not registered in the system, so it becomes garbage as
+ * soon as the future is completed and dropped. Messages sent through it to
+ * any other actor are discarded as dead letters rather than rejected, so
+ * that an actor misusing it is not restarted by its supervisor.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public final class PromiseActorRef<T extends Message> implements ActorRef<T> {
+
+    /**
+     * Sequence of the ids assigned to temporary references
+     */
+    private static final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Name of the temporary reference, e.g. {@code $temp1a}
+     */
+    private final String name = "$temp" + Long.toString(nextId.incrementAndGet(), 36);
+    /**
+     * Future completed by the reply
+     */
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    /**
+     * Number of messages misdirected through this reference and discarded
+     */
+    private final AtomicLong deadLetterCount = new AtomicLong();
+
+    /**
+     * Create a temporary reference expiring after {@code timeout}, the
+     * timeout is cancelled as soon as the future is completed.
+     *
+     * @param system The system scheduling the timeout
+     * @param timeout The maximum time to wait for the reply
+     * @param unit The time unit of {@code timeout}
+     */
+    public PromiseActorRef(AbsActorSystem system, long timeout, TimeUnit unit) {
+        Cancellable timer = system.getScheduler()
+            .scheduleOnce(timeout, unit, () -> future.completeExceptionally(new TimeoutException()));
+        future.whenComplete((reply, error) -> timer.cancel());
+    }
+
+    /**
+     * Return the future completed by the reply
+     */
+    public CompletableFuture<T> getFuture() {
+        return this.future;
+    }
+
+    /**
+     * Return the number of messages sent through this reference to another
+     * actor and discarded as dead letters
+     */
+    public long getDeadLetterCount() {
+        return deadLetterCount.get();
+    }
+
+    /**
+     * Complete the future with {@code reply}, no-op if already completed
+     *
+     * @param reply The reply to the asked message
+     */
+    void complete(T reply) {
+        future.complete(reply);
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Temporary references are never forwarded to remote systems, the
+     * original sender is the reference itself.
+     */
+    @Override
+    public void setOriginalSender(ActorRef<T> originalSender) {}
+
+    @Override
+    public ActorRef<T> getOriginalSender() {
+        return this;
+    }
+
+    /**
+     * Complete the future with {@code message} if sent to this reference,
+     * e.g. {@code sender.send(reply, sender)}, otherwise discard it as a dead
+     * letter: a temporary reference can only be replied to.
+     */
+    @Override
+    public void send(T message, ActorRef<T> to) {
+        if (to != this)
+            deadLetterCount.incrementAndGet();
+        else
+            complete(message);
+    }
+
+    /**
+     * Complete the future with the first of {@code messages} if sent to this
+     * reference, otherwise discard them all as dead letters.
+     */
+    @Override
+    public void sendAll(Collection<T> messages, ActorRef<T> to) {
+        if (to != this)
+            deadLetterCount.addAndGet(messages.size());
+        else if (!messages.isEmpty())
+            complete(messages.iterator().next());
+    }
+
+    /**
+     * Discard {@code message} as a dead letter for every recipient in
+     * {@code to}, except this reference whose future is completed.
+     */
+    @Override
+    public void broadcast(T message, Collection<ActorRef<T>> to) {
+        for (ActorRef<T> recipient : to)
+            send(message, recipient);
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a temporary reference can
+     * only be replied to
+     */
+    @Override
+    public CompletableFuture<T> ask(T message, ActorRef<T> to, long timeout, TimeUnit unit) {
+        throw new UnsupportedOperationException("Temporary reference " + name + " can only be replied to");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a temporary reference can
+     * only be replied to
+     */
+    @Override
+    public void watch(ActorRef<? extends Message> watcher) {
+        throw new UnsupportedOperationException("Temporary reference " + name + " can only be replied to");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a temporary reference can
+     * only be replied to
+     */
+    @Override
+    public void unwatch(ActorRef<? extends Message> watcher) {
+        throw new UnsupportedOperationException("Temporary reference " + name + " can only be replied to");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a temporary reference can
+     * only be replied to
+     */
+    @Override
+    public void notifyTerminated(ActorRef<? extends Message> actor) {
+        throw new UnsupportedOperationException("Temporary reference " + name + " can only be replied to");
+    }
+}
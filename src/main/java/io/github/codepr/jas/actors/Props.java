@@ -0,0 +1,216 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+import io.github.codepr.jas.actors.dispatcher.Dispatcher;
+import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import io.github.codepr.jas.actors.mailbox.MailBox;
+import io.github.codepr.jas.actors.routers.Pool;
+
+/**
+ * Immutable recipe describing how to create an actor: the factory of the
+ * actor instance and, optionally, of its mailbox, of its own dispatcher and
+ * the pool of a router fronting many instances of it.
+ * <p/>
+ * Actors created by class resolve their no-arg constructor once per class,
+ * the resulting {@code MethodHandle} is cached and reused by every following
+ * creation; actors requiring arguments can be created through a
+ * {@code Supplier}, e.g. {@code Props.create(() -> new MyActor(42))}.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public final class Props {
+
+    /**
+     * No-arg constructors of the actor classes, resolved lazily and adapted
+     * to return an {@code AbsActor}
+     */
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<MethodHandle>() {
+            @Override
+            protected MethodHandle computeValue(Class<?> type) {
+                try {
+                    return MethodHandles.lookup()
+                        .findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(AbsActor.class));
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    throw new NoSuchActorException(e);
+                }
+            }
+        };
+
+    /**
+     * Factory of the actor instances
+     */
+    private final Supplier<? extends AbsActor> actor;
+    /**
+     * Factory of the mailbox used by the actor, if null the default mailbox
+     * is used
+     */
+    private final Supplier<? extends MailBox> mailBox;
+    /**
+     * Pool of the router to create in front of the actors, if null a single
+     * actor is created
+     */
+    private final Pool router;
+    /**
+     * Factory of a dispatcher owned by the actor, if null the dispatcher of
+     * the system is used
+     */
+    private final Supplier<? extends Dispatcher> dispatcher;
+
+    private Props(Supplier<? extends AbsActor> actor, Supplier<? extends MailBox> mailBox, Pool router,
+                  Supplier<? extends Dispatcher> dispatcher) {
+        this.actor = actor;
+        this.mailBox = mailBox;
+        this.router = router;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Create a {@code Props} using {@code actor} as factory of the actor
+     * instances.
+     *
+     * @param actor Factory of the actor, must return a new instance on every
+     * call
+     * @return A {@code Props} creating actors with {@code actor}
+     */
+    public static Props create(Supplier<? extends AbsActor> actor) {
+        if (actor == null)
+            throw new IllegalArgumentException("Actor factory must not be null");
+        return new Props(actor, null, null, null);
+    }
+
+    /**
+     * Create a {@code Props} instantiating {@code actor} through its no-arg
+     * constructor.
+     *
+     * @param actor The type of actor that has to be created
+     * @return A {@code Props} creating actors of type {@code actor}
+     * @throws NoSuchActorException if {@code actor} is not a concrete
+     * {@code AbsActor} with an accessible no-arg constructor
+     */
+    public static Props create(Class<? extends Actor> actor) {
+        if (!AbsActor.class.isAssignableFrom(actor))
+            throw new NoSuchActorException("Not an AbsActor: " + actor.getName());
+        final MethodHandle constructor = CONSTRUCTORS.get(actor);
+        return new Props(() -> {
+                try {
+                    return (AbsActor) constructor.invokeExact();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new NoSuchActorException(t);
+                }
+            }, null, null, null);
+    }
+
+    /**
+     * Return a copy of this {@code Props} using {@code mailBox} as factory of
+     * the mailbox of the actor, e.g. a
+     * {@link io.github.codepr.jas.actors.mailbox.BoundedMailBox bounded} one.
+     *
+     * @param mailBox Factory of the mailbox used by the actor, if null the
+     * default mailbox is used
+     * @return A new {@code Props} with the given mailbox
+     */
+    public Props withMailBox(Supplier<? extends MailBox> mailBox) {
+        return new Props(this.actor, mailBox, this.router, this.dispatcher);
+    }
+
+    /**
+     * Return a copy of this {@code Props} creating a router in front of a
+     * pool of actors, each one created with this {@code Props}, e.g.
+     * {@code Props.create(Worker.class).withRouter(Pool.roundRobin(4))}.
+     *
+     * @param router The pool of the router, if null a single actor is created
+     * @return A new {@code Props} with the given router
+     */
+    public Props withRouter(Pool router) {
+        return new Props(this.actor, this.mailBox, router, this.dispatcher);
+    }
+
+    /**
+     * Return a copy of this {@code Props} giving every actor its own
+     * dispatcher, shut down when the actor is stopped, e.g. a
+     * {@link io.github.codepr.jas.actors.dispatcher.PinnedDispatcher pinned}
+     * one for actors on a low latency path. Routers give it to each of their
+     * routees.
+     *
+     * @param dispatcher Factory of the dispatcher of the actor, if null the
+     * dispatcher of the system is used
+     * @return A new {@code Props} with the given dispatcher
+     */
+    public Props withDispatcher(Supplier<? extends Dispatcher> dispatcher) {
+        return new Props(this.actor, this.mailBox, this.router, dispatcher);
+    }
+
+    /**
+     * Return the pool of the router to create, if any
+     */
+    Pool getRouter() {
+        return this.router;
+    }
+
+    /**
+     * Create the dispatcher owned by the actor, if one has been configured
+     *
+     * @return A new dispatcher, or null to use the one of the system
+     */
+    Dispatcher newDispatcher() {
+        return dispatcher == null ? null : dispatcher.get();
+    }
+
+    /**
+     * Create a new instance of the actor, with its mailbox if one has been
+     * configured.
+     *
+     * @return A new actor, not yet bound to any reference
+     */
+    AbsActor newActor() {
+        AbsActor instance = newInstance();
+        if (mailBox != null)
+            instance.setMailBox(mailBox.get());
+        return instance;
+    }
+
+    /**
+     * Create a new instance of the actor only, e.g. to restart an actor
+     * keeping its mailbox.
+     *
+     * @return A new actor with the default mailbox
+     */
+    AbsActor newInstance() {
+        AbsActor instance = actor.get();
+        if (instance == null)
+            throw new NoSuchActorException("Actor factory returned null");
+        return instance;
+    }
+}
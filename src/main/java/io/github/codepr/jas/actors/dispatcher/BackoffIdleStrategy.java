@@ -0,0 +1,132 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.dispatcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link IdleStrategy} backing off in three steps: it spins for
+ * {@code maxSpins} calls, then yields the processor for {@code maxYields}
+ * calls, then parks the thread for a period doubling on every call, from
+ * {@code minParkPeriod} up to {@code maxParkPeriod}. New work arriving
+ * shortly after the last one is noticed within nanoseconds, at the cost of
+ * a busy processor. A long idle thread still wakes up once every
+ * {@code maxParkPeriod} to poll for work, a thousand times a second with the
+ * defaults: cheap, but not free with many pinned threads, a longer period
+ * trades latency of the first message for fewer wake-ups.
+ * <p/>
+ * Not thread-safe, every thread needs its own instance.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class BackoffIdleStrategy implements IdleStrategy {
+
+    /**
+     * Default number of calls spinning
+     */
+    public static final long DEFAULT_MAX_SPINS = 10000;
+
+    /**
+     * Default number of calls yielding the processor
+     */
+    public static final long DEFAULT_MAX_YIELDS = 100;
+
+    /**
+     * Default shortest park, in microseconds
+     */
+    public static final long DEFAULT_MIN_PARK_PERIOD = 1;
+
+    /**
+     * Default longest park, in microseconds
+     */
+    public static final long DEFAULT_MAX_PARK_PERIOD = 1000;
+
+    private final long maxSpins;
+    private final long maxYields;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    /**
+     * Number of calls since the last reset
+     */
+    private long idleCalls;
+
+    /**
+     * Period of the next park, in nanoseconds
+     */
+    private long parkNanos;
+
+    /**
+     * Create a strategy with the default number of spins and yields, parking
+     * from one microsecond up to a millisecond
+     */
+    public BackoffIdleStrategy() {
+        this(DEFAULT_MAX_SPINS, DEFAULT_MAX_YIELDS, DEFAULT_MIN_PARK_PERIOD,
+             DEFAULT_MAX_PARK_PERIOD, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Create a strategy
+     *
+     * @param maxSpins The number of calls spinning
+     * @param maxYields The number of calls yielding the processor
+     * @param minParkPeriod The shortest park
+     * @param maxParkPeriod The longest park
+     * @param unit The time unit of {@code minParkPeriod} and
+     * {@code maxParkPeriod}
+     */
+    public BackoffIdleStrategy(long maxSpins, long maxYields, long minParkPeriod,
+                               long maxParkPeriod, TimeUnit unit) {
+        if (maxSpins < 0 || maxYields < 0 || minParkPeriod <= 0 || maxParkPeriod < minParkPeriod)
+            throw new IllegalArgumentException("Invalid backoff configuration");
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkNanos = unit.toNanos(minParkPeriod);
+        this.maxParkNanos = unit.toNanos(maxParkPeriod);
+        reset();
+    }
+
+    @Override
+    public void idle() {
+        if (idleCalls < maxSpins) {
+            idleCalls++;
+        } else if (idleCalls < maxSpins + maxYields) {
+            idleCalls++;
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(this, parkNanos);
+            parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.idleCalls = 0;
+        this.parkNanos = minParkNanos;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.dispatcher;
+
+/**
+ * A dispatcher in the <code>jas</code> system, schedules the processing of
+ * actors' mailboxes onto a pool of threads. Actors are submitted only when
+ * they have messages to be processed, so an idle actor costs no thread at all.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public interface Dispatcher {
+
+    /**
+     * Schedule the processing of an actor mailbox
+     *
+     * @param mailBoxRun Runnable type draining the mailbox of an actor
+     */
+    void dispatch(Runnable mailBoxRun);
+
+    /**
+     * Return the maximum number of messages an actor can process before
+     * yielding the thread back to the dispatcher
+     *
+     * @return The throughput batch size
+     */
+    int getThroughput();
+
+    /**
+     * Shutdown the dispatcher, no more actors can be scheduled after this call
+     */
+    void shutdown();
+}
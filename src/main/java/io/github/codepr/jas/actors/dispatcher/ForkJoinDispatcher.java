@@ -0,0 +1,116 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.dispatcher;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link Dispatcher} backed by a bounded {@code ForkJoinPool} running in
+ * async (FIFO) mode, every actor with pending messages is scheduled on the
+ * pool, drains up to {@code throughput} messages and then yields the thread.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class ForkJoinDispatcher implements Dispatcher {
+
+    /**
+     * Default number of messages processed by an actor before yielding
+     */
+    public static final int DEFAULT_THROUGHPUT = 5;
+
+    /**
+     * Bounded pool of worker threads
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Maximum number of messages processed on every run of an actor
+     */
+    private final int throughput;
+
+    /**
+     * Constructor to initialize {@code pool} with a parallelism level equal to
+     * the number of available processors and the default throughput
+     */
+    public ForkJoinDispatcher() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_THROUGHPUT);
+    }
+
+    /**
+     * Constructor to initialize {@code pool} with a given parallelism level
+     *
+     * @param parallelism The number of worker threads of the pool
+     * @param throughput The maximum number of messages processed by an actor
+     * before yielding the thread
+     */
+    public ForkJoinDispatcher(int parallelism, int throughput) {
+        if (parallelism <= 0 || throughput <= 0)
+            throw new IllegalArgumentException("parallelism and throughput must be positive");
+        this.pool = new ForkJoinPool(parallelism,
+                                     ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                                     null, true);
+        this.throughput = throughput;
+    }
+
+    /**
+     * Schedule the processing of an actor mailbox on the pool
+     *
+     * @param mailBoxRun Runnable type draining the mailbox of an actor
+     */
+    @Override
+    public void dispatch(Runnable mailBoxRun) {
+        pool.execute(mailBoxRun);
+    }
+
+    /**
+     * Return the maximum number of messages an actor can process before
+     * yielding the thread back to the dispatcher
+     *
+     * @return The throughput batch size
+     */
+    @Override
+    public int getThroughput() {
+        return this.throughput;
+    }
+
+    /**
+     * Return the number of worker threads started by the pool so far
+     *
+     * @return The number of worker threads
+     */
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    /**
+     * Shutdown the underlying pool
+     */
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.dispatcher;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Dispatcher} owning a single thread, meant to be dedicated to a
+ * single actor on the hot path of a low latency pipeline: instead of being
+ * parked when the mailbox is empty, the thread waits for the actor to be
+ * scheduled again following an {@link IdleStrategy}, by default spinning,
+ * then yielding, then parking, so a message sent shortly after the last one
+ * is processed within microseconds. It's opted in per actor, e.g.
+ * {@code system.actorOf(Props.create(Hot.class).withDispatcher(PinnedDispatcher::new))},
+ * and shut down along with the actor.
+ * <p/>
+ * The thread keeps a processor busy while spinning: use it only for a few
+ * actors, on machines with processors to spare.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class PinnedDispatcher implements Dispatcher {
+
+    /**
+     * Sequence numbering the threads of pinned dispatchers
+     */
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Runs of the actor waiting for the thread, at most one for a dispatcher
+     * dedicated to a single actor
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Strategy followed by the thread when there are no runs
+     */
+    private final IdleStrategy idleStrategy;
+
+    /**
+     * Maximum number of messages processed on every run of an actor
+     */
+    private final int throughput;
+
+    private final Thread worker;
+
+    /**
+     * Set while the thread is idle, so that it's woken up if parked
+     */
+    private volatile boolean idle;
+
+    private volatile boolean shutdown;
+
+    /**
+     * Constructor to initialize the thread with a {@link BackoffIdleStrategy}
+     * and the default throughput
+     */
+    public PinnedDispatcher() {
+        this(new BackoffIdleStrategy(), ForkJoinDispatcher.DEFAULT_THROUGHPUT);
+    }
+
+    /**
+     * Constructor to initialize the thread with a given idle strategy
+     *
+     * @param idleStrategy The strategy followed by the thread when idle, not
+     * shared with other threads
+     * @param throughput The maximum number of messages processed by an actor
+     * before yielding the thread
+     */
+    public PinnedDispatcher(IdleStrategy idleStrategy, int throughput) {
+        if (throughput <= 0)
+            throw new IllegalArgumentException("throughput must be positive");
+        this.idleStrategy = idleStrategy;
+        this.throughput = throughput;
+        this.worker = new Thread(this::run, "jas-pinned-" + nextId.incrementAndGet());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule the processing of an actor mailbox on the dedicated thread,
+     * waking it up if it's parked
+     *
+     * @param mailBoxRun Runnable type draining the mailbox of an actor
+     */
+    @Override
+    public void dispatch(Runnable mailBoxRun) {
+        tasks.offer(mailBoxRun);
+        if (idle)
+            LockSupport.unpark(worker);
+    }
+
+    /**
+     * Return the maximum number of messages an actor can process before
+     * yielding the thread back to the dispatcher
+     *
+     * @return The throughput batch size
+     */
+    @Override
+    public int getThroughput() {
+        return this.throughput;
+    }
+
+    /**
+     * Stop the dedicated thread once the pending runs are completed
+     */
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Loop of the dedicated thread
+     */
+    private void run() {
+        while (true) {
+            Runnable task = tasks.poll();
+            if (task != null) {
+                idleStrategy.reset();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            } else if (shutdown) {
+                return;
+            } else {
+                idle = true;
+                if (tasks.isEmpty() && !shutdown)
+                    idleStrategy.idle();
+                idle = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.dispatcher;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link Dispatcher} running every scheduled actor on its own virtual
+ * thread, actors blocking inside {@code receive} only park a virtual thread
+ * instead of holding a platform one.
+ * Virtual threads are available starting from Java 21, the executor is looked
+ * up at runtime and the dispatcher cannot be created on older JVMs, check
+ * {@code isSupported} beforehand to pick another dispatcher.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class VirtualThreadDispatcher implements Dispatcher {
+
+    /**
+     * Executor spawning a new virtual thread for every submitted task
+     */
+    private final ExecutorService eService;
+
+    /**
+     * Maximum number of messages processed on every run of an actor
+     */
+    private final int throughput;
+
+    /**
+     * Constructor to initialize {@code eService} with the default throughput
+     */
+    public VirtualThreadDispatcher() {
+        this(ForkJoinDispatcher.DEFAULT_THROUGHPUT);
+    }
+
+    /**
+     * Constructor to initialize {@code eService} with the given throughput
+     *
+     * @param throughput The maximum number of messages processed by an actor
+     * before yielding the thread
+     * @throws UnsupportedOperationException if the running JVM does not
+     * support virtual threads
+     */
+    public VirtualThreadDispatcher(int throughput) {
+        if (throughput <= 0)
+            throw new IllegalArgumentException("throughput must be positive");
+        this.eService = newVirtualThreadExecutor();
+        this.throughput = throughput;
+    }
+
+    /**
+     * Check if the running JVM supports virtual threads
+     *
+     * @return True if virtual threads are available, false otherwise
+     */
+    public static boolean isSupported() {
+        return lookupFactory() != null;
+    }
+
+    /**
+     * Schedule the processing of an actor mailbox on a new virtual thread
+     *
+     * @param mailBoxRun Runnable type draining the mailbox of an actor
+     */
+    @Override
+    public void dispatch(Runnable mailBoxRun) {
+        eService.execute(mailBoxRun);
+    }
+
+    /**
+     * Return the maximum number of messages an actor can process before
+     * yielding the thread back to the dispatcher
+     *
+     * @return The throughput batch size
+     */
+    @Override
+    public int getThroughput() {
+        return this.throughput;
+    }
+
+    /**
+     * Shutdown the underlying executor
+     */
+    @Override
+    public void shutdown() {
+        eService.shutdown();
+    }
+
+    /**
+     * Lookup {@code Executors.newVirtualThreadPerTaskExecutor}
+     *
+     * @return A handle to the factory method, or null if not available
+     */
+    private static MethodHandle lookupFactory() {
+        try {
+            return MethodHandles.publicLookup()
+                .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                            MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create a virtual thread per task executor
+     *
+     * @return An {@code ExecutorService} instance
+     * @throws UnsupportedOperationException if the running JVM does not
+     * support virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        MethodHandle factory = lookupFactory();
+        if (factory == null)
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        try {
+            return (ExecutorService) factory.invoke();
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to create the virtual thread executor", t);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.exceptions.MailBoxOverflowException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A bounded mailbox backed by an array used as a ring buffer, the memory used
+ * by the mailbox is fixed at creation. When the mailbox is full the configured
+ * {@link OverflowStrategy} is applied and every discarded message is counted
+ * and handed to the dead letters {@code Consumer}, if any.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class BoundedMailBox<T extends Message> implements MailBox<T> {
+
+    /**
+     * Default maximum time a sender can be blocked with
+     * {@code OverflowStrategy.BLOCK}, in milliseconds
+     */
+    public static final long DEFAULT_BLOCK_TIMEOUT = 1000;
+
+    /**
+     * Ring buffer of messages
+     */
+    private final Object[] items;
+
+    /**
+     * Strategy to be applied when the mailbox is full
+     */
+    private final OverflowStrategy strategy;
+
+    /**
+     * Maximum time a sender can be blocked with {@code OverflowStrategy.BLOCK}
+     */
+    private final long timeoutNanos;
+
+    /**
+     * Notified of every message discarded by the mailbox
+     */
+    private final Consumer<? super Envelope<T>> deadLetters;
+
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    /**
+     * Index of the head message
+     */
+    private int takeIndex;
+
+    /**
+     * Index of the next slot to fill
+     */
+    private int putIndex;
+
+    /**
+     * Number of messages inside the mailbox
+     */
+    private int count;
+
+    /**
+     * Number of messages discarded by the mailbox
+     */
+    private long deadLetterCount;
+
+    /**
+     * Create a bounded mailbox, blocking senders at most
+     * {@code DEFAULT_BLOCK_TIMEOUT} milliseconds in case of
+     * {@code OverflowStrategy.BLOCK}
+     *
+     * @param capacity The maximum number of messages stored
+     * @param strategy The strategy applied when the mailbox is full
+     */
+    public BoundedMailBox(int capacity, OverflowStrategy strategy) {
+        this(capacity, strategy, DEFAULT_BLOCK_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a bounded mailbox only counting dead letters
+     *
+     * @param capacity The maximum number of messages stored
+     * @param strategy The strategy applied when the mailbox is full
+     * @param timeout The maximum time a sender can be blocked with
+     * {@code OverflowStrategy.BLOCK}
+     * @param unit The time unit of {@code timeout}
+     */
+    public BoundedMailBox(int capacity, OverflowStrategy strategy, long timeout, TimeUnit unit) {
+        this(capacity, strategy, timeout, unit, e -> {});
+    }
+
+    /**
+     * Create a bounded mailbox
+     *
+     * @param capacity The maximum number of messages stored
+     * @param strategy The strategy applied when the mailbox is full
+     * @param timeout The maximum time a sender can be blocked with
+     * {@code OverflowStrategy.BLOCK}
+     * @param unit The time unit of {@code timeout}
+     * @param deadLetters Notified of every message discarded by the mailbox
+     */
+    public BoundedMailBox(int capacity, OverflowStrategy strategy, long timeout,
+                          TimeUnit unit, Consumer<? super Envelope<T>> deadLetters) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+        this.items = new Object[capacity];
+        this.strategy = strategy;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.deadLetters = deadLetters;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+    }
+
+    /**
+     * Enqueue incoming messages inside the ring buffer, applying the overflow
+     * strategy if the mailbox is full
+     *
+     * @param message The message to be stored, along with its sender
+     * @throws MailBoxOverflowException if the mailbox is full and the strategy
+     * is {@code OverflowStrategy.FAIL}
+     */
+    public void enqueue(Envelope<T> message) {
+        enqueue(message, true);
+    }
+
+    /**
+     * Enqueue incoming messages inside the ring buffer without ever waiting,
+     * with {@code OverflowStrategy.BLOCK} the message is discarded as a dead
+     * letter if the mailbox is full
+     *
+     * @param message The message to be stored, along with its sender
+     * @throws MailBoxOverflowException if the mailbox is full and the strategy
+     * is {@code OverflowStrategy.FAIL}
+     */
+    public void enqueueWithoutBlocking(Envelope<T> message) {
+        enqueue(message, false);
+    }
+
+    private void enqueue(Envelope<T> message, boolean block) {
+        Envelope<T> dropped = null;
+        boolean overflow = false;
+        lock.lock();
+        try {
+            if (count == items.length) {
+                switch (strategy) {
+                case BLOCK:
+                    long nanos = block ? timeoutNanos : 0;
+                    try {
+                        while (count == items.length && nanos > 0)
+                            nanos = notFull.awaitNanos(nanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (count == items.length)
+                        dropped = message;
+                    break;
+                case DROP_NEWEST:
+                    dropped = message;
+                    break;
+                case DROP_OLDEST:
+                    dropped = extract();
+                    break;
+                case FAIL:
+                    dropped = message;
+                    overflow = true;
+                    break;
+                }
+            }
+            if (dropped != null)
+                deadLetterCount++;
+            if (dropped != message)
+                insert(message);
+        } finally {
+            lock.unlock();
+        }
+        if (dropped != null)
+            deadLetters.accept(dropped);
+        if (overflow)
+            throw new MailBoxOverflowException("Mailbox full, capacity " + items.length);
+    }
+
+    /**
+     * Remove the head message of the queue, waiting for a message to be
+     * enqueued if the queue is empty
+     *
+     * @return The last message stored inside the queue
+     */
+    public Envelope<T> remove() {
+        Envelope<T> message = null;
+        lock.lock();
+        try {
+            while (count == 0)
+                notEmpty.await();
+            message = extract();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } finally {
+            lock.unlock();
+        }
+        return message;
+    }
+
+    /**
+     * Remove the head message of the queue without waiting
+     *
+     * @return The head message of the queue, or null if the queue is empty
+     */
+    public Envelope<T> poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove at most {@code max} messages from the head of the queue without
+     * waiting, acquiring the lock once
+     *
+     * @param to The collection receiving the messages
+     * @param max The maximum number of messages to remove
+     * @return The number of messages removed
+     */
+    public int drainTo(Collection<? super Envelope<T>> to, int max) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < max && count > 0) {
+                to.add(extract());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the number of messages inside the queue
+     *
+     * @return The number of messages inside the queue
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the number of messages discarded by the mailbox so far
+     *
+     * @return The number of dead letters
+     */
+    public long getDeadLetterCount() {
+        lock.lock();
+        try {
+            return deadLetterCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check if the queue is empty
+     *
+     * @return True if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return count == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check if {@code enqueue} may block the sender, which is the case with
+     * {@code OverflowStrategy.BLOCK}
+     *
+     * @return True if senders may be blocked, false otherwise
+     */
+    public boolean blocksSenders() {
+        return strategy == OverflowStrategy.BLOCK;
+    }
+
+    /**
+     * Return the maximum number of messages the mailbox can store
+     *
+     * @return The capacity of the mailbox
+     */
+    public int getCapacity() {
+        return items.length;
+    }
+
+    /**
+     * Insert a message at the put position, must be called holding the lock
+     */
+    private void insert(Envelope<T> message) {
+        items[putIndex] = message;
+        if (++putIndex == items.length)
+            putIndex = 0;
+        count++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Extract the message at the take position, must be called holding the
+     * lock
+     */
+    @SuppressWarnings("unchecked")
+    private Envelope<T> extract() {
+        Envelope<T> message = (Envelope<T>) items[takeIndex];
+        items[takeIndex] = null;
+        if (++takeIndex == items.length)
+            takeIndex = 0;
+        count--;
+        notFull.signal();
+        return message;
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.Message;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A mailbox keeping only the latest message per key: a {@link Conflatable}
+ * message replaces the pending message with the same key, if any, taking
+ * its place in the queue, so a slow consumer only processes the newest value
+ * of every key, e.g. of a market data feed, and under bursts of updates the
+ * size of the mailbox is bounded by the number of distinct keys. Other
+ * messages, and those with a null key, are queued as usual.
+ * <p/>
+ * Safe with many producers and consumers, all operations take a single lock.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class ConflatingMailBox<T extends Message> implements MailBox<T> {
+
+    /**
+     * Queue of the slots in order of arrival of their first message
+     */
+    private final ArrayDeque<Slot<T>> queue = new ArrayDeque<>();
+
+    /**
+     * Queued slots of conflatable messages, by key
+     */
+    private final Map<Object, Slot<T>> pending = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Number of messages replaced by a newer one
+     */
+    private long conflated;
+
+    /**
+     * Enqueue an incoming message, replacing the pending message with the
+     * same key, if any, never blocks
+     *
+     * @param envelope The message to be stored, along with its sender
+     */
+    public void enqueue(Envelope<T> envelope) {
+        Object key = keyOf(envelope);
+        lock.lock();
+        try {
+            offer(envelope, key);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enqueue a batch of messages acquiring the lock once
+     *
+     * @param envelopes The messages to be stored, along with their sender
+     */
+    public void enqueueAll(Collection<Envelope<T>> envelopes) {
+        lock.lock();
+        try {
+            for (Envelope<T> envelope : envelopes)
+                offer(envelope, keyOf(envelope));
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the head message of the queue, waiting for a message to be
+     * enqueued if the queue is empty
+     *
+     * @return The head message of the queue, or null if the consumer thread
+     * has been interrupted
+     */
+    public Envelope<T> remove() {
+        Envelope<T> message = null;
+        lock.lock();
+        try {
+            while (queue.isEmpty())
+                notEmpty.await();
+            message = extract();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } finally {
+            lock.unlock();
+        }
+        return message;
+    }
+
+    /**
+     * Remove the head message of the queue without waiting
+     *
+     * @return The head message of the queue, or null if the queue is empty
+     */
+    public Envelope<T> poll() {
+        lock.lock();
+        try {
+            return queue.isEmpty() ? null : extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove at most {@code max} messages from the head of the queue without
+     * waiting, acquiring the lock once
+     *
+     * @param to The collection receiving the messages
+     * @param max The maximum number of messages to remove
+     * @return The number of messages removed
+     */
+    public int drainTo(Collection<? super Envelope<T>> to, int max) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < max && !queue.isEmpty()) {
+                to.add(extract());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the number of messages inside the queue
+     *
+     * @return The number of messages inside the queue
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check if the queue is empty
+     *
+     * @return True if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the number of messages replaced by a newer one since the
+     * creation of the mailbox
+     *
+     * @return The number of conflated messages
+     */
+    public long getConflated() {
+        lock.lock();
+        try {
+            return conflated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue a message or replace the pending one with the same key, must be
+     * called holding the lock
+     */
+    private void offer(Envelope<T> envelope, Object key) {
+        if (key != null) {
+            Slot<T> slot = pending.get(key);
+            if (slot != null) {
+                slot.envelope = envelope;
+                conflated++;
+                return;
+            }
+        }
+        Slot<T> slot = new Slot<>(envelope, key);
+        queue.add(slot);
+        if (key != null)
+            pending.put(key, slot);
+    }
+
+    /**
+     * Remove the head message, must be called holding the lock with a non
+     * empty queue
+     */
+    private Envelope<T> extract() {
+        Slot<T> slot = queue.poll();
+        if (slot.key != null)
+            pending.remove(slot.key);
+        return slot.envelope;
+    }
+
+    private static Object keyOf(Envelope<?> envelope) {
+        Object message = envelope.getMessage();
+        return message instanceof Conflatable ? ((Conflatable) message).getConflationKey() : null;
+    }
+
+    /**
+     * Position in the queue of a message, the message is replaced when
+     * conflated
+     */
+    private static final class Slot<T extends Message> {
+
+        Envelope<T> envelope;
+        final Object key;
+
+        Slot(Envelope<T> envelope, Object key) {
+            this.envelope = envelope;
+            this.key = key;
+        }
+    }
+}
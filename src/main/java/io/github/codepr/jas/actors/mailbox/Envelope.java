@@ -0,0 +1,80 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.Message;
+
+/**
+ * Stored inside a {@link MailBox}, bundles a message with the reference of
+ * the actor that sent it, so that every message carries its own sender until
+ * it's processed.
+ * The envelope is also the node of the intrusive {@link MpscMailBox}, hence
+ * an envelope can be enqueued only once, in a single mailbox.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Envelope<T extends Message> {
+
+    /**
+     * The message to be processed
+     */
+    private final T message;
+
+    /**
+     * Reference to the sender of the message
+     */
+    private final ActorRef<T> sender;
+
+    /**
+     * Next envelope, link of the intrusive {@code MpscMailBox}
+     */
+    volatile Envelope<T> next;
+
+    public Envelope(T message, ActorRef<T> sender) {
+        this.message = message;
+        this.sender = sender;
+    }
+
+    /**
+     * Return the message carried by the envelope
+     *
+     * @return The message
+     */
+    public T getMessage() {
+        return message;
+    }
+
+    /**
+     * Return the reference to the sender of the message
+     *
+     * @return The sender of the message
+     */
+    public ActorRef<T> getSender() {
+        return sender;
+    }
+}
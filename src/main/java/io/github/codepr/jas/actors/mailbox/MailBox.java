@@ -25,6 +25,8 @@
 package io.github.codepr.jas.actors.mailbox;
 
 import io.github.codepr.jas.actors.Message;
+import java.util.Collection;
+
 /**
  * A mailbox system in the <code>pcd-actors</code> system to store incoming
  * messages.
@@ -37,15 +39,89 @@ public interface MailBox<T extends Message> {
 
     /**
      * Enqueue incoming messages inside the structure of choice
-     * @param message The message to be stored
+     * @param envelope The message to be stored, along with its sender
+     */
+    void enqueue(Envelope<T> envelope);
+
+    /**
+     * Enqueue incoming messages without ever blocking the sender, used for
+     * messages sent from the thread of an actor, which must not park waiting
+     * for room as the receiver may need that very thread. Mailboxes that may
+     * block senders discard the message as a dead letter when full. Defaults
+     * to {@code enqueue}.
+     * @param envelope The message to be stored, along with its sender
      */
-    void enqueue(T message);
+    default void enqueueWithoutBlocking(Envelope<T> envelope) {
+        enqueue(envelope);
+    }
+
+    /**
+     * Enqueue a batch of incoming messages inside the structure of choice,
+     * preserving their order. Defaults to enqueue them one by one.
+     * @param envelopes The messages to be stored, along with their sender
+     */
+    default void enqueueAll(Collection<Envelope<T>> envelopes) {
+        for (Envelope<T> envelope : envelopes)
+            enqueue(envelope);
+    }
+
+    /**
+     * Check if {@code enqueue} may block the sender until the consumer makes
+     * room for the message, in that case batches are not enqueued at once,
+     * as the consumer has to run while the sender is waiting.
+     * @return True if senders may be blocked, false otherwise
+     */
+    default boolean blocksSenders() {
+        return false;
+    }
 
     /**
      * Remove the head message of the queue
      * @return The last message stored inside the queue
      */
-    T remove();
+    Envelope<T> remove();
+
+    /**
+     * Remove the head message of the queue without waiting
+     * @return The head message of the queue, or null if the queue is empty
+     */
+    Envelope<T> poll();
+
+    /**
+     * Remove at most {@code max} messages from the head of the queue without
+     * waiting, adding them to {@code to} in order. Defaults to poll them one
+     * by one.
+     * @param to The collection receiving the messages
+     * @param max The maximum number of messages to remove
+     * @return The number of messages removed
+     */
+    default int drainTo(Collection<? super Envelope<T>> to, int max) {
+        int n = 0;
+        Envelope<T> envelope;
+        while (n < max && (envelope = poll()) != null) {
+            to.add(envelope);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Called once by a stopping actor consuming from the mailbox, before it
+     * processes the messages left. A mailbox shared by many actors lets only
+     * the last one process them, the others leave them to the actors still
+     * running. Defaults to true, as the mailbox of an actor is its own.
+     * @return True if the stopping actor has to process the messages left
+     */
+    default boolean detachConsumer() {
+        return true;
+    }
+
+    /**
+     * Return the number of messages inside the queue, may be approximate when
+     * called while messages are being enqueued or removed
+     * @return The number of messages inside the queue
+     */
+    int size();
 
     /**
      * Check if the queue is empty
@@ -25,12 +25,15 @@
 package io.github.codepr.jas.actors.mailbox;
 
 import io.github.codepr.jas.actors.Message;
+import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * A mailbox system in the <code>pcd-actors</code> system to store incoming
- * messages.
+ * messages. Backed by a {@code LinkedBlockingQueue}, it's safe with many
+ * consumers as well, e.g. as the mailbox shared by the routees of a
+ * {@link io.github.codepr.jas.actors.routers.BalancingPool balancing pool}.
  *
  * @author Andrea Giacomo Baldan
  * @version 1.0
@@ -41,7 +44,7 @@ public class MailBoxImpl<T extends Message> implements MailBox<T> {
     /**
      * Blocking queue for messages
      */
-    private BlockingQueue<T> box;
+    private BlockingQueue<Envelope<T>> box;
 
     public MailBoxImpl() {
         box = new LinkedBlockingQueue<>();
@@ -50,11 +53,11 @@ public class MailBoxImpl<T extends Message> implements MailBox<T> {
     /**
      * Enqueue incoming messages inside the structure of choice
      *
-     * @param message The message to be stored
+     * @param envelope The message to be stored, along with its sender
      */
-    public void enqueue(T message) {
+    public void enqueue(Envelope<T> envelope) {
         try {
-            box.put(message);
+            box.put(envelope);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
@@ -65,8 +68,8 @@ public class MailBoxImpl<T extends Message> implements MailBox<T> {
      *
      * @return The last message stored inside the queue
      */
-    public T remove() {
-        T message = null;
+    public Envelope<T> remove() {
+        Envelope<T> message = null;
         try {
             message = box.take();
         } catch (InterruptedException e) {
@@ -75,6 +78,36 @@ public class MailBoxImpl<T extends Message> implements MailBox<T> {
         return message;
     }
 
+    /**
+     * Remove the head message of the queue without waiting
+     *
+     * @return The head message of the queue, or null if the queue is empty
+     */
+    public Envelope<T> poll() {
+        return box.poll();
+    }
+
+    /**
+     * Remove at most {@code max} messages from the head of the queue without
+     * waiting, acquiring the lock of the queue once
+     *
+     * @param to The collection receiving the messages
+     * @param max The maximum number of messages to remove
+     * @return The number of messages removed
+     */
+    public int drainTo(Collection<? super Envelope<T>> to, int max) {
+        return box.drainTo(to, max);
+    }
+
+    /**
+     * Return the number of messages inside the queue
+     *
+     * @return The number of messages inside the queue
+     */
+    public int size() {
+        return box.size();
+    }
+
     /**
      * Check if the queue is empty
      *
@@ -0,0 +1,216 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.Message;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A multi-producer single-consumer mailbox based on an intrusive linked queue
+ * with a stub node (Vyukov style). Envelopes are the nodes of the queue, so no
+ * allocation happens on enqueue and producers never lock nor spin:
+ * {@code enqueue} is a single atomic swap of the tail followed by the link of
+ * the previous envelope, while the only consumer walks the list from the head.
+ * A dedicated stub envelope is appended whenever the queue would become empty,
+ * so that removed envelopes are unlinked right away and the mailbox of an idle
+ * actor never keeps its last message and sender reachable.
+ * Only one thread at a time is allowed to consume messages, which is always
+ * the case for the mailbox of an actor.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class MpscMailBox<T extends Message> implements MailBox<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MpscMailBox, Envelope> TAIL =
+        AtomicReferenceFieldUpdater.newUpdater(MpscMailBox.class, Envelope.class, "tail");
+
+    /**
+     * Last envelope of the queue, shared by all producers
+     */
+    private volatile Envelope<T> tail;
+
+    /**
+     * First envelope of the queue, either the head message or the stub,
+     * owned by the consumer
+     */
+    private Envelope<T> head;
+
+    /**
+     * Empty envelope kept in the queue when all the messages are removed
+     */
+    private final Envelope<T> stub;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<MpscMailBox> SIZE =
+        AtomicIntegerFieldUpdater.newUpdater(MpscMailBox.class, "size");
+
+    /**
+     * Number of messages inside the queue, incremented before they are
+     * linked and decremented once removed
+     */
+    private volatile int size;
+
+    /**
+     * Consumer thread parked inside {@code remove}, if any
+     */
+    private volatile Thread waiter;
+
+    public MpscMailBox() {
+        this.stub = new Envelope<>(null, null);
+        this.head = stub;
+        this.tail = stub;
+    }
+
+    /**
+     * Enqueue incoming messages inside the structure of choice, never blocks
+     *
+     * @param envelope The message to be stored, along with its sender
+     */
+    public void enqueue(Envelope<T> envelope) {
+        SIZE.incrementAndGet(this);
+        append(envelope, envelope);
+        Thread consumer = waiter;
+        if (consumer != null)
+            LockSupport.unpark(consumer);
+    }
+
+    /**
+     * Append the chain of envelopes from {@code first} to {@code last} with
+     * a single atomic swap of the tail
+     */
+    @SuppressWarnings("unchecked")
+    private void append(Envelope<T> first, Envelope<T> last) {
+        Envelope<T> prev = TAIL.getAndSet(this, last);
+        prev.next = first;
+    }
+
+    /**
+     * Enqueue a batch of messages with a single atomic swap: the envelopes
+     * are linked together privately, then the whole chain is appended to the
+     * queue at once, so messages of the batch are never interleaved with
+     * those of other producers.
+     *
+     * @param envelopes The messages to be stored, along with their sender
+     */
+    public void enqueueAll(Collection<Envelope<T>> envelopes) {
+        Iterator<Envelope<T>> it = envelopes.iterator();
+        if (!it.hasNext())
+            return;
+        Envelope<T> first = it.next();
+        Envelope<T> last = first;
+        int n = 1;
+        while (it.hasNext()) {
+            Envelope<T> envelope = it.next();
+            last.next = envelope;
+            last = envelope;
+            n++;
+        }
+        SIZE.getAndAdd(this, n);
+        append(first, last);
+        Thread consumer = waiter;
+        if (consumer != null)
+            LockSupport.unpark(consumer);
+    }
+
+    /**
+     * Remove the head message of the queue, waiting for a message to be
+     * enqueued if the queue is empty
+     *
+     * @return The last message stored inside the queue, or null if the
+     * consumer thread has been interrupted
+     */
+    public Envelope<T> remove() {
+        Envelope<T> envelope = poll();
+        if (envelope != null)
+            return envelope;
+        Thread current = Thread.currentThread();
+        waiter = current;
+        while ((envelope = poll()) == null && !current.isInterrupted())
+            LockSupport.park(this);
+        waiter = null;
+        return envelope;
+    }
+
+    /**
+     * Remove the head message of the queue without waiting, the removed
+     * envelope is unlinked from the queue. If it's the last one, the stub is
+     * appended first to take its place.
+     *
+     * @return The head message of the queue, or null if the queue is empty
+     * or a message is still being linked by its producer
+     */
+    public Envelope<T> poll() {
+        Envelope<T> first = head;
+        Envelope<T> next = first.next;
+        if (first == stub) {
+            if (next == null)
+                return null;
+            head = next;
+            first = next;
+            next = next.next;
+        }
+        if (next == null) {
+            // a producer swapped the tail but did not link its envelope yet
+            if (first != tail)
+                return null;
+            stub.next = null;
+            append(stub, stub);
+            next = first.next;
+            if (next == null)
+                return null;
+        }
+        head = next;
+        first.next = null;
+        SIZE.decrementAndGet(this);
+        return first;
+    }
+
+    /**
+     * Return the number of messages inside the queue in constant time, it
+     * may count messages still being linked by their producers
+     *
+     * @return The number of messages inside the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the queue is empty
+     *
+     * @return True if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        Envelope<T> first = head;
+        return first == stub && first.next == null;
+    }
+}
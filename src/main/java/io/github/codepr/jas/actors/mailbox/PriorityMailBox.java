@@ -0,0 +1,208 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.Message;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * A mailbox removing messages in order of priority, so that urgent messages,
+ * e.g. health checks, overtake the bulk traffic already queued. Messages of
+ * the same priority keep their FIFO order: every message is stamped with a
+ * sequence number on enqueue, used to break ties. Backed by a
+ * {@code PriorityBlockingQueue}, enqueue and removal take logarithmic time
+ * under a lock, and it's safe with many consumers as well.
+ * <p/>
+ * The priority is given either by a function, lower values first, computed
+ * once per message, or by a comparator of the messages, e.g.
+ * {@code Props.create(Worker.class).withMailBox(() -> new PriorityMailBox<>(m -> m instanceof HealthCheck ? 0 : 1))}.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class PriorityMailBox<T extends Message> implements MailBox<T> {
+
+    /**
+     * Default initial capacity of the queue
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Queue of the envelopes along with their priority
+     */
+    private final PriorityBlockingQueue<Entry<T>> box;
+
+    /**
+     * Priority of a message, null if messages are ordered by a comparator
+     */
+    private final ToIntFunction<? super T> priority;
+
+    /**
+     * Sequence stamping the messages in order of arrival
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Create a mailbox removing first the messages with the lowest
+     * {@code priority}
+     *
+     * @param priority The priority of a message, lower values first
+     */
+    public PriorityMailBox(ToIntFunction<? super T> priority) {
+        this.priority = priority;
+        this.box = new PriorityBlockingQueue<>(INITIAL_CAPACITY, (a, b) -> {
+                int c = Integer.compare(a.priority, b.priority);
+                return c != 0 ? c : Long.compare(a.sequence, b.sequence);
+            });
+    }
+
+    /**
+     * Create a mailbox removing first the messages coming first according to
+     * {@code comparator}
+     *
+     * @param comparator The order of the messages
+     */
+    public PriorityMailBox(Comparator<? super T> comparator) {
+        this.priority = null;
+        this.box = new PriorityBlockingQueue<>(INITIAL_CAPACITY, (a, b) -> {
+                int c = comparator.compare(a.envelope.getMessage(), b.envelope.getMessage());
+                return c != 0 ? c : Long.compare(a.sequence, b.sequence);
+            });
+    }
+
+    /**
+     * Enqueue incoming messages in order of priority, never blocks
+     *
+     * @param envelope The message to be stored, along with its sender
+     */
+    public void enqueue(Envelope<T> envelope) {
+        box.offer(entry(envelope));
+    }
+
+    /**
+     * Enqueue a batch of messages, their sequence numbers are contiguous so
+     * that messages of the batch with the same priority are not interleaved
+     * with those of other producers
+     *
+     * @param envelopes The messages to be stored, along with their sender
+     */
+    public void enqueueAll(Collection<Envelope<T>> envelopes) {
+        long seq = sequence.getAndAdd(envelopes.size());
+        for (Envelope<T> envelope : envelopes)
+            box.offer(new Entry<>(envelope, priorityOf(envelope), seq++));
+    }
+
+    /**
+     * Remove the message with the highest priority, waiting for a message to
+     * be enqueued if the queue is empty
+     *
+     * @return The message with the highest priority, or null if the
+     * consumer thread has been interrupted
+     */
+    public Envelope<T> remove() {
+        try {
+            return box.take().envelope;
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Remove the message with the highest priority without waiting
+     *
+     * @return The message with the highest priority, or null if the queue is
+     * empty
+     */
+    public Envelope<T> poll() {
+        Entry<T> entry = box.poll();
+        return entry == null ? null : entry.envelope;
+    }
+
+    /**
+     * Remove at most {@code max} messages in order of priority without
+     * waiting, acquiring the lock of the queue once
+     *
+     * @param to The collection receiving the messages
+     * @param max The maximum number of messages to remove
+     * @return The number of messages removed
+     */
+    public int drainTo(Collection<? super Envelope<T>> to, int max) {
+        List<Entry<T>> entries = new ArrayList<>(Math.min(max, INITIAL_CAPACITY));
+        int n = box.drainTo(entries, max);
+        for (Entry<T> entry : entries)
+            to.add(entry.envelope);
+        return n;
+    }
+
+    /**
+     * Return the number of messages inside the queue
+     *
+     * @return The number of messages inside the queue
+     */
+    public int size() {
+        return box.size();
+    }
+
+    /**
+     * Check if the queue is empty
+     *
+     * @return True if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return box.isEmpty();
+    }
+
+    private Entry<T> entry(Envelope<T> envelope) {
+        return new Entry<>(envelope, priorityOf(envelope), sequence.getAndIncrement());
+    }
+
+    private int priorityOf(Envelope<T> envelope) {
+        return priority == null ? 0 : priority.applyAsInt(envelope.getMessage());
+    }
+
+    /**
+     * Envelope queued along with its priority and sequence number
+     */
+    private static final class Entry<T extends Message> {
+
+        final Envelope<T> envelope;
+        final int priority;
+        final long sequence;
+
+        Entry(Envelope<T> envelope, int priority, long sequence) {
+            this.envelope = envelope;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.AbsActorSystem;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.Props;
+import io.github.codepr.jas.actors.mailbox.MailBox;
+import io.github.codepr.jas.actors.mailbox.MailBoxImpl;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of a router whose routees share a single mailbox: whichever
+ * routee is free takes the next message, so a slow message delays only the
+ * routee processing it instead of every message queued behind it, as it
+ * happens with a mailbox per routee. Suited for routees of the same class
+ * processing messages of very different duration.
+ * <p/>
+ * The mailbox configured in the {@link Props} of the routees is ignored, the
+ * shared mailbox is a {@link MailBoxImpl}, safe with many consumers. A
+ * stopping routee leaves the messages in the shared mailbox to the others,
+ * only the last one processes what's left.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class BalancingPool extends Pool {
+
+    /**
+     * Create a balancing pool of {@code size} routees
+     *
+     * @param size The number of routees
+     */
+    public BalancingPool(int size) {
+        super(size, null);
+    }
+
+    /**
+     * Balancing pools have a fixed size: the routees are created along with
+     * the mailbox they share and count on.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Pool withResizer(Resizer resizer) {
+        throw new UnsupportedOperationException("A balancing pool can't be resized");
+    }
+
+    /**
+     * Create the routees in {@code system}, all consuming from the same
+     * mailbox, and the router in front of them.
+     *
+     * @param system The system creating the router
+     * @param routee The recipe of the routees
+     * @return The router, not yet bound to any reference
+     */
+    @Override
+    public AbsActor<?> createRouter(AbsActorSystem system, Props routee) {
+        final MailBox<Message> shared = new SharedMailBox<>(getSize());
+        Props sharing = routee.withMailBox(() -> shared);
+        List<AbsActor<Message>> routees = new ArrayList<>(getSize());
+        for (int i = 0; i < getSize(); i++)
+            routees.add((AbsActor<Message>) system.getActor(system.actorOf(sharing)));
+        return new BalancingRouterActor<>(system, shared, routees);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.AbsActorSystem;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.Terminated;
+import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import io.github.codepr.jas.actors.mailbox.Envelope;
+import io.github.codepr.jas.actors.mailbox.MailBox;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Router of a {@link BalancingPool}: messages are enqueued into the mailbox
+ * shared by all the routees, then an idle routee, if any, is woken up to
+ * process them. Busy routees keep taking messages from the shared mailbox
+ * as long as it's not empty.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class BalancingRouterActor<T extends Message> extends RouterActor<T> {
+
+    /**
+     * Mailbox shared by all the routees
+     */
+    private final MailBox<T> shared;
+
+    /**
+     * First routee to try to wake up, rotated to spread the work
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    public BalancingRouterActor(AbsActorSystem system, MailBox<T> shared, List<AbsActor<T>> routees) {
+        super(system, null, routees);
+        this.shared = shared;
+    }
+
+    /**
+     * Enqueue {@code message} into the shared mailbox and wake up an idle
+     * routee
+     *
+     * @param message The message to be routed
+     * @param sender The reference to the sender of the message
+     * @throws NoSuchActorException if the router is stopped
+     */
+    @Override
+    public void enqueue(T message, ActorRef<T> sender) {
+        if (isStopped())
+            throw new NoSuchActorException();
+        shared.enqueue(new Envelope<>(message, sender));
+        wakeUp(1);
+    }
+
+    /**
+     * Enqueue the batch into the shared mailbox at once and wake up as many
+     * idle routees as messages
+     *
+     * @param messages The messages to be routed, in order
+     * @param sender The reference to the sender of the messages
+     */
+    @Override
+    public void enqueueAll(Collection<? extends T> messages, ActorRef<T> sender) {
+        if (isStopped())
+            throw new NoSuchActorException();
+        List<Envelope<T>> envelopes = new ArrayList<>(messages.size());
+        for (T message : messages)
+            envelopes.add(new Envelope<>(message, sender));
+        shared.enqueueAll(envelopes);
+        wakeUp(envelopes.size());
+    }
+
+    /**
+     * Remove a stopped routee and wake up the others, the messages it left
+     * in the shared mailbox are theirs
+     *
+     * @param terminated The notification carrying the stopped routee
+     */
+    @Override
+    protected void onTerminated(Terminated terminated) {
+        super.onTerminated(terminated);
+        int pending = shared.size();
+        if (pending > 0)
+            wakeUp(pending);
+    }
+
+    /**
+     * Return the number of messages waiting in the shared mailbox
+     */
+    @Override
+    public int getMailBoxSize() {
+        return shared.size();
+    }
+
+    /**
+     * Wake up at most {@code count} idle routees, starting from a rotating
+     * one. If none is idle, busy routees will find the messages in the
+     * shared mailbox before releasing their thread.
+     */
+    private void wakeUp(int count) {
+        List<AbsActor<T>> routees = getRoutees();
+        int n = routees.size();
+        if (n == 0)
+            return;
+        int start = (next.getAndIncrement() & Integer.MAX_VALUE) % n;
+        for (int i = 0; i < n && count > 0; i++) {
+            if (routees.get((start + i) % n).wakeUp())
+                count--;
+        }
+    }
+}
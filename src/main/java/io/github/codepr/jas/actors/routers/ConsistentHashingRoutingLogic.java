@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.exceptions.UnsupportedMessageException;
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Routes messages by key: every routee owns a set of points on a hash ring
+ * and a message goes to the owner of the first point following the hash of
+ * its key, so messages with equal keys always reach the same routee and
+ * adding or removing a routee only moves the keys of its neighbours.
+ * <p/>
+ * The ring is built from the names of the routees and rebuilt only when the
+ * routees of the router change.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class ConsistentHashingRoutingLogic implements RoutingLogic {
+
+    /**
+     * Number of points of every routee on the ring
+     */
+    private static final int VIRTUAL_NODES = 16;
+
+    /**
+     * Extracts the routing key from a message
+     */
+    private final Function<? super Message, ?> hashKey;
+
+    /**
+     * Ring of the last routees seen
+     */
+    private volatile Ring ring;
+
+    /**
+     * Create a logic routing {@link ConsistentHashable} messages by their key
+     */
+    public ConsistentHashingRoutingLogic() {
+        this(m -> m instanceof ConsistentHashable ? ((ConsistentHashable) m).getHashKey() : null);
+    }
+
+    /**
+     * Create a logic routing messages by the key extracted by {@code hashKey}
+     *
+     * @param hashKey Extracts the routing key from a message
+     */
+    public ConsistentHashingRoutingLogic(Function<? super Message, ?> hashKey) {
+        this.hashKey = hashKey;
+    }
+
+    /**
+     * @throws UnsupportedMessageException if no key can be extracted from
+     * {@code message}
+     */
+    @Override
+    public <T extends Message> AbsActor<T> select(T message, List<AbsActor<T>> routees) {
+        Object key = hashKey.apply(message);
+        if (key == null)
+            throw new UnsupportedMessageException(message);
+        Ring current = ring;
+        if (current == null || current.routees != routees)
+            ring = current = new Ring(routees);
+        int i = Arrays.binarySearch(current.hashes, mix(key.hashCode()));
+        if (i < 0)
+            i = -i - 1;
+        if (i == current.hashes.length)
+            i = 0;
+        return routees.get(current.owners[i]);
+    }
+
+    /**
+     * Spread the bits of a hash code, murmur3 finalizer
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Sorted points of the ring, along with the index of the routee owning
+     * each of them
+     */
+    private static final class Ring {
+
+        private final List<?> routees;
+        private final int[] hashes;
+        private final int[] owners;
+
+        <T extends Message> Ring(List<AbsActor<T>> routees) {
+            this.routees = routees;
+            long[] points = new long[routees.size() * VIRTUAL_NODES];
+            for (int r = 0; r < routees.size(); r++) {
+                String name = nameOf(routees.get(r));
+                for (int v = 0; v < VIRTUAL_NODES; v++) {
+                    int hash = mix((name + "#" + v).hashCode());
+                    points[r * VIRTUAL_NODES + v] = ((long) hash << 32) | r;
+                }
+            }
+            Arrays.sort(points);
+            this.hashes = new int[points.length];
+            this.owners = new int[points.length];
+            for (int i = 0; i < points.length; i++) {
+                hashes[i] = (int) (points[i] >> 32);
+                owners[i] = (int) points[i];
+            }
+        }
+
+        private static String nameOf(AbsActor<?> routee) {
+            try {
+                return routee.getSelf().getName();
+            } catch (RemoteException e) {
+                return String.valueOf(System.identityHashCode(routee));
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.AbsActorSystem;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.Props;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Configuration of a router owning a fixed number of routees, all created
+ * from the same {@link Props}, e.g.
+ * {@code system.actorOf(Props.create(Worker.class).withRouter(Pool.roundRobin(4)))}.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class Pool {
+
+    /**
+     * Number of routees of the router
+     */
+    private final int size;
+
+    /**
+     * Factory of the routing logic, every router gets its own
+     */
+    private final Supplier<? extends RoutingLogic> logic;
+
+    /**
+     * Resizer of the routees, null for a pool of fixed size
+     */
+    private final Resizer resizer;
+
+    /**
+     * Create a pool of {@code size} routees
+     *
+     * @param size The number of routees
+     * @param logic Factory of the logic used to route messages
+     */
+    public Pool(int size, Supplier<? extends RoutingLogic> logic) {
+        this(size, logic, null);
+    }
+
+    /**
+     * Create a pool of initially {@code size} routees, resized by
+     * {@code resizer} if not null
+     *
+     * @param size The initial number of routees
+     * @param logic Factory of the logic used to route messages
+     * @param resizer The resizer of the routees, may be null
+     */
+    protected Pool(int size, Supplier<? extends RoutingLogic> logic, Resizer resizer) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Pool size must be positive");
+        this.size = size;
+        this.logic = logic;
+        this.resizer = resizer;
+    }
+
+    /**
+     * Create a pool routing messages to the routees in turn
+     *
+     * @param size The number of routees
+     */
+    public static Pool roundRobin(int size) {
+        return new Pool(size, RoundRobinRoutingLogic::new);
+    }
+
+    /**
+     * Create a pool routing every message to a random routee
+     *
+     * @param size The number of routees
+     */
+    public static Pool random(int size) {
+        return new Pool(size, RandomRoutingLogic::new);
+    }
+
+    /**
+     * Create a pool routing every message to the routee with the fewest
+     * pending messages
+     *
+     * @param size The number of routees
+     */
+    public static Pool smallestMailBox(int size) {
+        return new Pool(size, SmallestMailBoxRoutingLogic::new);
+    }
+
+    /**
+     * Create a pool routing {@link ConsistentHashable} messages by their key
+     *
+     * @param size The number of routees
+     */
+    public static Pool consistentHashing(int size) {
+        return new Pool(size, ConsistentHashingRoutingLogic::new);
+    }
+
+    /**
+     * Create a pool routing messages by the key extracted by {@code hashKey}
+     *
+     * @param size The number of routees
+     * @param hashKey Extracts the routing key from a message
+     */
+    public static Pool consistentHashing(int size, Function<? super Message, ?> hashKey) {
+        return new Pool(size, () -> new ConsistentHashingRoutingLogic(hashKey));
+    }
+
+    /**
+     * Create a pool sending every message to all the routees and replying
+     * with the first reply
+     *
+     * @param size The number of routees
+     * @param within The maximum time to wait for a reply
+     * @param unit The time unit of {@code within}
+     */
+    public static Pool scatterGatherFirstCompleted(int size, long within, TimeUnit unit) {
+        return new Pool(size, () -> new ScatterGatherFirstCompletedRoutingLogic(within, unit));
+    }
+
+    /**
+     * Create a pool sending every message to a new routee every
+     * {@code interval} until the first reply
+     *
+     * @param size The number of routees
+     * @param within The maximum time to wait for a reply
+     * @param interval The time to wait before trying the next routee
+     * @param unit The time unit of {@code within} and {@code interval}
+     */
+    public static Pool tailChopping(int size, long within, long interval, TimeUnit unit) {
+        return new Pool(size, () -> new TailChoppingRoutingLogic(within, interval, unit));
+    }
+
+    /**
+     * Return a copy of this pool whose routees are resized by
+     * {@code resizer}, the initial size is kept within its bounds
+     *
+     * @param resizer The resizer of the routees
+     */
+    public Pool withResizer(Resizer resizer) {
+        return new Pool(size, logic, resizer);
+    }
+
+    /**
+     * Return the number of routees of the router
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Return the resizer of the routees, null if the pool has a fixed size
+     */
+    public Resizer getResizer() {
+        return this.resizer;
+    }
+
+    /**
+     * Create the routees in {@code system} and the router in front of them,
+     * called by the system on {@code actorOf}.
+     *
+     * @param system The system creating the router
+     * @param routee The recipe of the routees
+     * @return The router, not yet bound to any reference
+     */
+    public AbsActor<?> createRouter(AbsActorSystem system, Props routee) {
+        int initial = size;
+        if (resizer != null)
+            initial = Math.max(resizer.getLowerBound(), Math.min(resizer.getUpperBound(), size));
+        List<AbsActor<Message>> routees = new ArrayList<>(initial);
+        for (int i = 0; i < initial; i++)
+            routees.add((AbsActor<Message>) system.getActor(system.actorOf(routee)));
+        if (resizer == null)
+            return new RouterActor<>(system, logic.get(), routees);
+        return new RouterActor<>(system, logic.get(), routees, resizer, routee);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes the routees of a {@link Pool pool} according to the pressure on
+ * their mailboxes, between a lower and an upper bound:
+ * <ul>
+ *     <li>When the average number of messages waiting in the mailboxes of
+ *     the routees exceeds {@code pressureThreshold} the pool grows by a
+ *     fifth of its size, at least one routee</li>
+ *     <li>When all the mailboxes are empty the pool shrinks by a tenth of
+ *     its size, at least one routee</li>
+ * </ul>
+ * The pressure is sampled by the router while routing messages, at most once
+ * every {@code cooldown}, so an idle pool is shrunk by the first messages
+ * following the idle period.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class Resizer {
+
+    /**
+     * Default average number of pending messages per routee above which the
+     * pool grows
+     */
+    public static final int DEFAULT_PRESSURE_THRESHOLD = 10;
+
+    /**
+     * Default minimum time between two samples of the pressure, in
+     * milliseconds
+     */
+    public static final long DEFAULT_COOLDOWN = 100;
+
+    /**
+     * Fraction of the routees added when the pool grows
+     */
+    private static final double RAMPUP_RATE = 0.2;
+
+    /**
+     * Fraction of the routees removed when the pool shrinks
+     */
+    private static final double BACKOFF_RATE = 0.1;
+
+    private final int lowerBound;
+    private final int upperBound;
+    private final int pressureThreshold;
+    private final long cooldownNanos;
+
+    /**
+     * Create a resizer with the default pressure threshold and cooldown
+     *
+     * @param lowerBound The minimum number of routees
+     * @param upperBound The maximum number of routees
+     */
+    public Resizer(int lowerBound, int upperBound) {
+        this(lowerBound, upperBound, DEFAULT_PRESSURE_THRESHOLD, DEFAULT_COOLDOWN, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a resizer
+     *
+     * @param lowerBound The minimum number of routees
+     * @param upperBound The maximum number of routees
+     * @param pressureThreshold The average number of pending messages per
+     * routee above which the pool grows
+     * @param cooldown The minimum time between two samples of the pressure
+     * @param unit The time unit of {@code cooldown}
+     */
+    public Resizer(int lowerBound, int upperBound, int pressureThreshold, long cooldown, TimeUnit unit) {
+        if (lowerBound <= 0 || upperBound < lowerBound)
+            throw new IllegalArgumentException("Bounds must satisfy 0 < lowerBound <= upperBound");
+        if (pressureThreshold < 0 || cooldown < 0)
+            throw new IllegalArgumentException("Pressure threshold and cooldown must not be negative");
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.pressureThreshold = pressureThreshold;
+        this.cooldownNanos = unit.toNanos(cooldown);
+    }
+
+    /**
+     * Return the minimum number of routees
+     */
+    public int getLowerBound() {
+        return this.lowerBound;
+    }
+
+    /**
+     * Return the maximum number of routees
+     */
+    public int getUpperBound() {
+        return this.upperBound;
+    }
+
+    /**
+     * Return the minimum time between two samples of the pressure, in
+     * nanoseconds
+     */
+    public long getCooldownNanos() {
+        return this.cooldownNanos;
+    }
+
+    /**
+     * Compute the number of routees to add or remove according to the
+     * pressure on their mailboxes
+     *
+     * @param routees The current routees of the router
+     * @return The number of routees to add if positive, to remove if
+     * negative, zero to leave the pool as it is
+     */
+    public int resize(List<? extends AbsActor<?>> routees) {
+        int n = routees.size();
+        if (n < lowerBound)
+            return lowerBound - n;
+        if (n > upperBound)
+            return upperBound - n;
+        long pending = 0;
+        for (AbsActor<?> routee : routees)
+            pending += routee.getMailBoxSize();
+        if (pending > (long) pressureThreshold * n)
+            return Math.min(upperBound - n, Math.max(1, (int) Math.ceil(n * RAMPUP_RATE)));
+        if (pending == 0)
+            return -Math.min(n - lowerBound, Math.max(1, (int) (n * BACKOFF_RATE)));
+        return 0;
+    }
+}
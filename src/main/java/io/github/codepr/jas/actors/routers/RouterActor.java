@@ -0,0 +1,335 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.AbsActorSystem;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.Props;
+import io.github.codepr.jas.actors.Terminated;
+import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An actor fronting a group of routees, every message sent to it is handed
+ * to one of them according to a {@link RoutingLogic}. Messages never pass
+ * through the mailbox of the router: they are enqueued straight into the
+ * mailbox of the selected routee by the sender thread, along with the
+ * original sender, so routees reply directly to it.
+ * <p/>
+ * Stopping the router stops all of its routees, the router watches them and
+ * removes a routee as soon as it's stopped by anyone else.
+ * <p/>
+ * Routers with a {@link Resizer} sample the pressure on the mailboxes of the
+ * routees while routing, at most once per cooldown: new routees are created
+ * through the system from the same {@link Props}, removed routees are stopped
+ * through the system as well, on another thread, processing the messages left
+ * in their mailboxes.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class RouterActor<T extends Message> extends AbsActor<T> {
+
+    /**
+     * System owning the routees
+     */
+    protected final AbsActorSystem system;
+
+    /**
+     * Logic selecting the routee of every message, may be null for routers
+     * overriding {@code enqueue}
+     */
+    private final RoutingLogic logic;
+
+    /**
+     * Current routees, an immutable snapshot replaced on every change
+     */
+    private volatile List<AbsActor<T>> routees;
+
+    /**
+     * Set once the router is stopped
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Resizer of the routees, null for a router of fixed size
+     */
+    private final Resizer resizer;
+
+    /**
+     * Recipe of the routees created by the resizer
+     */
+    private final Props routeeProps;
+
+    /**
+     * Held by the thread resizing the routees
+     */
+    private final AtomicBoolean resizing = new AtomicBoolean();
+
+    /**
+     * Stopped routees waiting to be removed by the holder of
+     * {@code resizing}
+     */
+    private final Queue<ActorRef<? extends Message>> terminatedRoutees = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Time, as of {@code System.nanoTime}, before which the pressure is not
+     * sampled again
+     */
+    private volatile long nextResize;
+
+    public RouterActor(AbsActorSystem system, RoutingLogic logic, List<AbsActor<T>> routees) {
+        this(system, logic, routees, null, null);
+    }
+
+    public RouterActor(AbsActorSystem system, RoutingLogic logic, List<AbsActor<T>> routees,
+                       Resizer resizer, Props routeeProps) {
+        this.system = system;
+        this.logic = logic;
+        this.routees = Collections.unmodifiableList(new ArrayList<>(routees));
+        this.resizer = resizer;
+        this.routeeProps = routeeProps;
+        if (resizer != null)
+            this.nextResize = System.nanoTime() + resizer.getCooldownNanos();
+    }
+
+    /**
+     * Route {@code message} to one of the routees
+     *
+     * @param message The message to be routed
+     * @param sender The reference to the sender of the message
+     * @throws NoSuchActorException if the router is stopped or has no
+     * routees
+     */
+    @Override
+    public void enqueue(T message, ActorRef<T> sender) {
+        if (stopped)
+            throw new NoSuchActorException();
+        // sample the pressure before adding the message to it
+        if (resizer != null && System.nanoTime() - nextResize >= 0)
+            resize();
+        List<AbsActor<T>> current = routees;
+        if (current.isEmpty())
+            throw new NoSuchActorException("No routees");
+        try {
+            logic.route(message, sender, current, this);
+        } catch (NoSuchActorException e) {
+            // the selected routee has been removed by the resizer, retry
+            if (stopped || routees == current)
+                throw e;
+            enqueue(message, sender);
+        }
+    }
+
+    /**
+     * Add or remove routees as suggested by the resizer, by a single thread
+     * at a time
+     */
+    private void resize() {
+        if (!resizing.compareAndSet(false, true))
+            return;
+        try {
+            if (System.nanoTime() - nextResize < 0 || stopped)
+                return;
+            List<AbsActor<T>> current = routees;
+            int delta = resizer.resize(current);
+            if (delta > 0)
+                grow(current, delta);
+            else if (delta < 0)
+                shrink(current, -delta);
+            nextResize = System.nanoTime() + resizer.getCooldownNanos();
+        } finally {
+            resizing.set(false);
+            // routees stopped while resizing
+            pruneTerminated();
+        }
+    }
+
+    /**
+     * Create {@code n} new routees through the system
+     */
+    @SuppressWarnings("unchecked")
+    private void grow(List<AbsActor<T>> current, int n) {
+        List<AbsActor<T>> added = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            added.add((AbsActor<T>) system.getActor(system.actorOf(routeeProps)));
+        List<AbsActor<T>> next = new ArrayList<>(current);
+        next.addAll(added);
+        routees = Collections.unmodifiableList(next);
+        for (AbsActor<T> routee : added)
+            watch(routee.getSelf());
+        // the router may have been stopped before seeing the new routees
+        if (stopped)
+            for (AbsActor<T> routee : added)
+                stopRoutee(routee);
+    }
+
+    /**
+     * Remove the last {@code n} routees, stopping them on another thread as
+     * stopping waits for their pending messages to be processed
+     */
+    private void shrink(List<AbsActor<T>> current, int n) {
+        List<AbsActor<T>> removed = new ArrayList<>(current.subList(current.size() - n, current.size()));
+        routees = Collections.unmodifiableList(new ArrayList<>(current.subList(0, current.size() - n)));
+        system.startActorRunnable(() -> {
+                for (AbsActor<T> routee : removed)
+                    stopRoutee(routee);
+            });
+    }
+
+    /**
+     * Watch the routees, to prune them once stopped
+     */
+    @Override
+    protected void preStart() {
+        for (AbsActor<T> routee : routees)
+            watch(routee.getSelf());
+    }
+
+    /**
+     * Remove a stopped routee, so that no message is routed to it anymore
+     *
+     * @param terminated The notification carrying the stopped routee
+     */
+    @Override
+    protected void onTerminated(Terminated terminated) {
+        terminatedRoutees.add(terminated.getActor());
+        pruneTerminated();
+    }
+
+    /**
+     * Remove the stopped routees, unless the resizer is replacing the
+     * routees, in which case it removes them once done
+     */
+    private void pruneTerminated() {
+        while (!terminatedRoutees.isEmpty() && resizing.compareAndSet(false, true)) {
+            try {
+                Set<ActorRef<? extends Message>> gone = new HashSet<>();
+                ActorRef<? extends Message> ref;
+                while ((ref = terminatedRoutees.poll()) != null)
+                    gone.add(ref);
+                List<AbsActor<T>> current = routees;
+                List<AbsActor<T>> next = new ArrayList<>(current.size());
+                for (AbsActor<T> routee : current)
+                    if (!gone.contains(routee.getSelf()))
+                        next.add(routee);
+                if (next.size() < current.size())
+                    routees = Collections.unmodifiableList(next);
+            } finally {
+                resizing.set(false);
+            }
+        }
+    }
+
+    private void stopRoutee(AbsActor<T> routee) {
+        try {
+            system.stop(routee.getSelf());
+        } catch (NoSuchActorException e) {
+            // already stopped
+        }
+    }
+
+    /**
+     * Route every message of the batch on its own
+     *
+     * @param messages The messages to be routed, in order
+     * @param sender The reference to the sender of the messages
+     */
+    @Override
+    public void enqueueAll(Collection<? extends T> messages, ActorRef<T> sender) {
+        for (T message : messages)
+            enqueue(message, sender);
+    }
+
+    /**
+     * Messages are routed on enqueue and never reach the mailbox of the
+     * router, route the message anyway if it does.
+     */
+    @Override
+    public void receive(T message) {
+        enqueue(message, sender);
+    }
+
+    /**
+     * Return the system owning the routees
+     */
+    public final AbsActorSystem getSystem() {
+        return this.system;
+    }
+
+    /**
+     * Send {@code reply} to {@code to} on behalf of the router, used by
+     * logics collecting the replies of the routees
+     *
+     * @param reply The reply to send
+     * @param to The original sender of the request
+     */
+    public void reply(T reply, ActorRef<T> to) {
+        try {
+            getSelf().send(reply, to);
+        } catch (RemoteException | NoSuchActorException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Check if the router has been stopped
+     */
+    protected final boolean isStopped() {
+        return this.stopped;
+    }
+
+    /**
+     * Return the current routees of the router
+     *
+     * @return An immutable list of the routees
+     */
+    public List<AbsActor<T>> getRoutees() {
+        return this.routees;
+    }
+
+    /**
+     * Stops the router and all of its routees
+     */
+    @Override
+    public void stop() {
+        stopped = true;
+        for (AbsActor<T> routee : routees)
+            stopRoutee(routee);
+        super.stop();
+    }
+}
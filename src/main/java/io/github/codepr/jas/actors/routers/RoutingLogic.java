@@ -0,0 +1,67 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.Message;
+import java.util.List;
+
+/**
+ * Strategy used by a {@link RouterActor router} to pick the routee receiving
+ * a message. Implementations are called concurrently by every sender of the
+ * router and must be thread-safe.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public interface RoutingLogic {
+
+    /**
+     * Select the routee receiving {@code message}
+     *
+     * @param message The message to be routed
+     * @param routees The current routees of the router, never empty
+     * @return The routee receiving the message
+     */
+    <T extends Message> AbsActor<T> select(T message, List<AbsActor<T>> routees);
+
+    /**
+     * Deliver {@code message} to the routees, called by the router for every
+     * message it receives. Defaults to enqueue the message, along with its
+     * sender, into the routee returned by {@code select}; logics sending a
+     * message to many routees override it.
+     *
+     * @param message The message to be routed
+     * @param sender The reference to the sender of the message
+     * @param routees The current routees of the router, never empty
+     * @param router The router receiving the message
+     */
+    default <T extends Message> void route(T message, ActorRef<T> sender,
+                                           List<AbsActor<T>> routees, RouterActor<T> router) {
+        select(message, routees).enqueue(message, sender);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.PromiseActorRef;
+import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends every message to all the routees and replies to the sender with the
+ * first reply, discarding the others. The sender gets no reply if none of
+ * the routees replies within the timeout, e.g. an
+ * {@link ActorRef#ask ask} of the sender times out.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class ScatterGatherFirstCompletedRoutingLogic implements RoutingLogic {
+
+    /**
+     * Maximum time to wait for the first reply
+     */
+    private final long within;
+    private final TimeUnit unit;
+
+    /**
+     * Create a logic waiting at most {@code within} for the first reply
+     *
+     * @param within The maximum time to wait for a reply
+     * @param unit The time unit of {@code within}
+     */
+    public ScatterGatherFirstCompletedRoutingLogic(long within, TimeUnit unit) {
+        if (within <= 0)
+            throw new IllegalArgumentException("Timeout must be positive");
+        this.within = within;
+        this.unit = unit;
+    }
+
+    /**
+     * Return a random routee, every routee receives the message anyway
+     */
+    @Override
+    public <T extends Message> AbsActor<T> select(T message, List<AbsActor<T>> routees) {
+        return routees.get(ThreadLocalRandom.current().nextInt(routees.size()));
+    }
+
+    /**
+     * Send {@code message} to all the routees, sharing a single temporary
+     * reference as sender, and forward the first reply to {@code sender}
+     */
+    @Override
+    public <T extends Message> void route(T message, ActorRef<T> sender,
+                                          List<AbsActor<T>> routees, RouterActor<T> router) {
+        PromiseActorRef<T> promise = new PromiseActorRef<>(router.getSystem(), within, unit);
+        promise.getFuture().thenAccept(reply -> router.reply(reply, sender));
+        for (AbsActor<T> routee : routees) {
+            try {
+                routee.enqueue(message, promise);
+            } catch (NoSuchActorException e) {
+                // stopped in the meantime, wait for the others
+            }
+        }
+    }
+}
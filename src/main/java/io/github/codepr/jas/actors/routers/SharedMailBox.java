@@ -0,0 +1,60 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.mailbox.MailBoxImpl;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mailbox shared by the routees of a {@link BalancingPool}, counting its
+ * consumers so that only the last routee to stop processes the messages
+ * left, the others leave them to the routees still running.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+class SharedMailBox<T extends Message> extends MailBoxImpl<T> {
+
+    /**
+     * Number of routees consuming from the mailbox and not stopped yet
+     */
+    private final AtomicInteger consumers;
+
+    SharedMailBox(int consumers) {
+        this.consumers = new AtomicInteger(consumers);
+    }
+
+    /**
+     * Detach a stopping routee
+     *
+     * @return True if it's the last consumer, false otherwise
+     */
+    @Override
+    public boolean detachConsumer() {
+        return consumers.decrementAndGet() == 0;
+    }
+}
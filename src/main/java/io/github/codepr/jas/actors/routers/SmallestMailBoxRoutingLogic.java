@@ -0,0 +1,64 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.Message;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Routes every message to the routee with the fewest messages in its
+ * mailbox, stopping at the first routee with an empty one. The scan starts
+ * from a random routee, so ties are spread evenly.
+ * <p/>
+ * The depth of a mailbox may be approximate while messages are being
+ * enqueued or removed.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class SmallestMailBoxRoutingLogic implements RoutingLogic {
+
+    @Override
+    public <T extends Message> AbsActor<T> select(T message, List<AbsActor<T>> routees) {
+        int n = routees.size();
+        int start = ThreadLocalRandom.current().nextInt(n);
+        AbsActor<T> smallest = null;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            AbsActor<T> routee = routees.get((start + i) % n);
+            int size = routee.getMailBoxSize();
+            if (size == 0)
+                return routee;
+            if (size < min) {
+                min = size;
+                smallest = routee;
+            }
+        }
+        return smallest;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.PromiseActorRef;
+import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import io.github.codepr.jas.actors.scheduler.Cancellable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends every message to a random routee, then to another one every
+ * {@code interval} until a reply arrives, and replies to the sender with the
+ * first reply, discarding the others. Compared to scatter-gather it sends
+ * the request to more routees only when the first ones are slow. The sender
+ * gets no reply if none of the routees replies within the timeout.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class TailChoppingRoutingLogic implements RoutingLogic {
+
+    /**
+     * Maximum time to wait for the first reply
+     */
+    private final long within;
+    /**
+     * Time to wait before sending the message to the next routee
+     */
+    private final long interval;
+    private final TimeUnit unit;
+
+    /**
+     * Create a logic sending the message to a new routee every
+     * {@code interval}, waiting at most {@code within} for the first reply
+     *
+     * @param within The maximum time to wait for a reply
+     * @param interval The time to wait before trying the next routee
+     * @param unit The time unit of {@code within} and {@code interval}
+     */
+    public TailChoppingRoutingLogic(long within, long interval, TimeUnit unit) {
+        if (within <= 0 || interval <= 0)
+            throw new IllegalArgumentException("Timeout and interval must be positive");
+        this.within = within;
+        this.interval = interval;
+        this.unit = unit;
+    }
+
+    /**
+     * Return a random routee, the first one receiving the message
+     */
+    @Override
+    public <T extends Message> AbsActor<T> select(T message, List<AbsActor<T>> routees) {
+        return routees.get(ThreadLocalRandom.current().nextInt(routees.size()));
+    }
+
+    /**
+     * Send {@code message} to the routees in random order, one every
+     * {@code interval}, sharing a single temporary reference as sender, and
+     * forward the first reply to {@code sender}. Pending sends are cancelled
+     * as soon as a reply arrives or the timeout expires.
+     */
+    @Override
+    public <T extends Message> void route(T message, ActorRef<T> sender,
+                                          List<AbsActor<T>> routees, RouterActor<T> router) {
+        PromiseActorRef<T> promise = new PromiseActorRef<>(router.getSystem(), within, unit);
+        CompletableFuture<T> future = promise.getFuture();
+        future.thenAccept(reply -> router.reply(reply, sender));
+        List<AbsActor<T>> order = new ArrayList<>(routees);
+        Collections.shuffle(order, ThreadLocalRandom.current());
+        order.get(0).enqueue(message, promise);
+        List<Cancellable> chops = new ArrayList<>(order.size() - 1);
+        for (int i = 1; i < order.size(); i++) {
+            final AbsActor<T> routee = order.get(i);
+            chops.add(router.getSystem().getScheduler().scheduleOnce(i * interval, unit, () -> {
+                        if (future.isDone())
+                            return;
+                        try {
+                            routee.enqueue(message, promise);
+                        } catch (NoSuchActorException e) {
+                            // stopped in the meantime, wait for the others
+                        }
+                    }));
+        }
+        future.whenComplete((reply, error) -> chops.forEach(chop -> chop.cancel()));
+    }
+}
@@ -0,0 +1,313 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A scheduler based on a hashed timing wheel: a ring of buckets, each one
+ * holding the timers expiring in a tick of time, advanced by a single daemon
+ * thread. Scheduling a timer is a lock-free enqueue, cancelling it is a CAS,
+ * while the thread moves new timers into their bucket and runs the expired
+ * ones once per tick, so millions of pending timers cost constant time each
+ * and one node of memory. Timers fire with the precision of a tick, never
+ * earlier than their deadline.
+ * <p/>
+ * Timers expiring after a whole turn of the wheel are kept in their bucket
+ * along with the number of turns left.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class HashedWheelScheduler implements Scheduler {
+
+    /**
+     * Default duration of a tick, in milliseconds
+     */
+    public static final long DEFAULT_TICK = 10;
+
+    /**
+     * Default number of buckets of the wheel
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * Maximum number of new timers moved into the wheel per tick, so that a
+     * burst of timers can't delay the expired ones too much
+     */
+    private static final int MAX_TRANSFERS = 100000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    /**
+     * Timers scheduled since the last tick, not yet in their bucket
+     */
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Timers cancelled since the last tick, to be removed from their bucket
+     */
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Thread advancing the wheel
+     */
+    private final Thread worker;
+
+    private final long startTime;
+
+    private volatile boolean shutdown;
+
+    /**
+     * Number of ticks elapsed since {@code startTime}, only accessed by the
+     * worker thread
+     */
+    private long tick;
+
+    /**
+     * Create a scheduler with the default tick duration and wheel size
+     */
+    public HashedWheelScheduler() {
+        this(DEFAULT_TICK, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Create a scheduler
+     *
+     * @param tickDuration The duration of a tick, the precision of timers
+     * @param unit The time unit of {@code tickDuration}
+     * @param wheelSize The number of buckets of the wheel, rounded up to a
+     * power of two
+     */
+    public HashedWheelScheduler(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0 || wheelSize > 1 << 30)
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize)
+            size <<= 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++)
+            this.wheel[i] = new Bucket();
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, "jas-scheduler");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public Cancellable scheduleOnce(long delay, TimeUnit unit, Runnable task) {
+        return schedule(task, unit.toNanos(delay), 0);
+    }
+
+    @Override
+    public Cancellable scheduleAtFixedRate(long initialDelay, long period, TimeUnit unit, Runnable task) {
+        if (period <= 0)
+            throw new IllegalArgumentException("Period must be positive");
+        return schedule(task, unit.toNanos(initialDelay), unit.toNanos(period));
+    }
+
+    private Cancellable schedule(Runnable task, long delayNanos, long periodNanos) {
+        if (shutdown)
+            throw new IllegalStateException("Scheduler is shut down");
+        Timeout timeout = new Timeout(this, task, System.nanoTime() + Math.max(0, delayNanos), periodNanos);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the worker thread, pending timers never fire
+     */
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Loop of the worker thread: wait for the end of the current tick, then
+     * update the wheel and run the timers of the bucket of the tick
+     */
+    private void run() {
+        while (!shutdown) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long now;
+            while ((now = System.nanoTime()) - deadline < 0 && !shutdown)
+                LockSupport.parkNanos(this, deadline - now);
+            if (shutdown)
+                break;
+            removeCancelled();
+            transferPending();
+            expire(wheel[(int) (tick & mask)], now);
+            tick++;
+        }
+        pending.clear();
+        cancelled.clear();
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null)
+            if (timeout.bucket != null)
+                timeout.bucket.remove(timeout);
+    }
+
+    /**
+     * Move new timers into the bucket of the tick of their deadline, timers
+     * already expired go into the bucket of the current tick
+     */
+    private void transferPending() {
+        Timeout timeout;
+        for (int i = 0; i < MAX_TRANSFERS && (timeout = pending.poll()) != null; i++) {
+            if (timeout.state == Timeout.CANCELLED)
+                continue;
+            long ticks = Math.max(tick, (timeout.deadline - startTime) / tickNanos);
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Run the timers of {@code bucket} due in the current turn of the wheel,
+     * periodic timers are scheduled again for their next deadline
+     */
+    private void expire(Bucket bucket, long now) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds <= 0 && timeout.deadline - now <= 0) {
+                bucket.remove(timeout);
+                if (timeout.period == 0) {
+                    if (Timeout.STATE.compareAndSet(timeout, Timeout.SCHEDULED, Timeout.EXPIRED))
+                        timeout.run();
+                } else if (timeout.state == Timeout.SCHEDULED) {
+                    timeout.run();
+                    timeout.deadline += timeout.period;
+                    pending.add(timeout);
+                }
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * A timer, node of the list of its bucket
+     */
+    private static final class Timeout implements Cancellable {
+
+        static final int SCHEDULED = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        final HashedWheelScheduler scheduler;
+        final Runnable task;
+        final long period;
+        volatile int state;
+
+        /**
+         * Fields only accessed by the worker thread
+         */
+        long deadline;
+        long remainingRounds;
+        Bucket bucket;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(HashedWheelScheduler scheduler, Runnable task, long deadline, long period) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        void run() {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, SCHEDULED, CANCELLED))
+                return false;
+            scheduler.cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+    }
+
+    /**
+     * Doubly linked list of the timers of a tick, only accessed by the
+     * worker thread
+     */
+    private static final class Bucket {
+
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null)
+                head = timeout;
+            else tail.next = timeout;
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this)
+                return;
+            if (timeout.prev == null)
+                head = timeout.next;
+            else timeout.prev.next = timeout.next;
+            if (timeout.next == null)
+                tail = timeout.prev;
+            else timeout.next.prev = timeout.prev;
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
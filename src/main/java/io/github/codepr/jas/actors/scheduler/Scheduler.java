@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler in the <code>jas</code> system, runs tasks after a delay or
+ * periodically, e.g. timeouts of {@code ask} or messages sent to an actor
+ * later on. Tasks should be short, as they may run all on the same thread:
+ * sending a message is fine, blocking is not.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public interface Scheduler {
+
+    /**
+     * Run {@code task} once after {@code delay}
+     *
+     * @param delay The time to wait before running the task
+     * @param unit The time unit of {@code delay}
+     * @param task The task to run
+     * @return A handle to cancel the task
+     */
+    Cancellable scheduleOnce(long delay, TimeUnit unit, Runnable task);
+
+    /**
+     * Run {@code task} after {@code initialDelay} and then every
+     * {@code period}, until cancelled
+     *
+     * @param initialDelay The time to wait before running the task the first
+     * time
+     * @param period The time between two runs of the task
+     * @param unit The time unit of {@code initialDelay} and {@code period}
+     * @return A handle to stop the task
+     */
+    Cancellable scheduleAtFixedRate(long initialDelay, long period, TimeUnit unit, Runnable task);
+
+    /**
+     * Shutdown the scheduler, pending tasks are dropped and no more tasks can
+     * be scheduled after this call
+     */
+    void shutdown();
+}
@@ -0,0 +1,71 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.supervision;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Applies the directive to the failing child and to all of its siblings,
+ * for children depending on each other so tightly that one can't work
+ * without the others. Siblings are restarted or stopped on their own
+ * threads, after the message they are processing.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class AllForOneStrategy extends SupervisorStrategy {
+
+    /**
+     * Create a strategy without any limit on restarts
+     *
+     * @param decider Maps the cause of a failure to the directive to apply
+     */
+    public AllForOneStrategy(Function<? super Throwable, Directive> decider) {
+        this(-1, 0, TimeUnit.NANOSECONDS, decider);
+    }
+
+    /**
+     * Create a strategy stopping a child restarted more than
+     * {@code maxRetries} times within {@code within}
+     *
+     * @param maxRetries The maximum number of restarts of a child within
+     * {@code within}, negative for no limit
+     * @param within The time window of the restart limit, zero for the whole
+     * life of the child
+     * @param unit The time unit of {@code within}
+     * @param decider Maps the cause of a failure to the directive to apply
+     */
+    public AllForOneStrategy(int maxRetries, long within, TimeUnit unit,
+                             Function<? super Throwable, Directive> decider) {
+        super(maxRetries, within, unit, decider);
+    }
+
+    @Override
+    public boolean isAllForOne() {
+        return true;
+    }
+}
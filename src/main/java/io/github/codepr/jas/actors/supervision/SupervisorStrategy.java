@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.supervision;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Decides the {@link Directive} applied to a failing child actor and whether
+ * it's applied to the failing child only or to all of its siblings as well.
+ * <p/>
+ * Restarts are rate limited: a child failing more than {@code maxRetries}
+ * times within the time window is stopped instead of being restarted.
+ * <p/>
+ * The strategy is consulted on the thread of the failing child, right after
+ * the failure, so that a restart takes just the creation of a new instance
+ * of the actor and never waits for the supervisor to be scheduled.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public abstract class SupervisorStrategy {
+
+    /**
+     * Strategy of the actors without a parent and default strategy of every
+     * actor: restart the failing actor only, without any limit
+     */
+    public static final SupervisorStrategy DEFAULT =
+        new OneForOneStrategy(-1, 0, TimeUnit.NANOSECONDS, cause -> Directive.RESTART);
+
+    /**
+     * Maximum number of restarts of a child within the time window, negative
+     * for no limit
+     */
+    private final int maxRetries;
+
+    /**
+     * Time window of the restart limit in nanoseconds, zero for the whole
+     * life of the child
+     */
+    private final long withinNanos;
+
+    /**
+     * Maps the cause of a failure to the directive to apply
+     */
+    private final Function<? super Throwable, Directive> decider;
+
+    /**
+     * Create a strategy
+     *
+     * @param maxRetries The maximum number of restarts of a child within
+     * {@code within}, negative for no limit
+     * @param within The time window of the restart limit, zero for the whole
+     * life of the child
+     * @param unit The time unit of {@code within}
+     * @param decider Maps the cause of a failure to the directive to apply,
+     * causes mapped to null are escalated
+     */
+    protected SupervisorStrategy(int maxRetries, long within, TimeUnit unit,
+                                 Function<? super Throwable, Directive> decider) {
+        if (decider == null)
+            throw new IllegalArgumentException("Decider must not be null");
+        if (within < 0)
+            throw new IllegalArgumentException("Time window must not be negative");
+        this.maxRetries = maxRetries;
+        this.withinNanos = unit.toNanos(within);
+        this.decider = decider;
+    }
+
+    /**
+     * Return the directive to apply to a child failing with {@code cause}
+     *
+     * @param cause The exception thrown by the child
+     * @return The directive to apply, {@code ESCALATE} if the decider does
+     * not know the cause
+     */
+    public Directive decide(Throwable cause) {
+        Directive directive = decider.apply(cause);
+        return directive == null ? Directive.ESCALATE : directive;
+    }
+
+    /**
+     * Return the maximum number of restarts of a child within the time
+     * window, negative for no limit
+     */
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    /**
+     * Return the time window of the restart limit in nanoseconds, zero for
+     * the whole life of the child
+     */
+    public long getWithinNanos() {
+        return this.withinNanos;
+    }
+
+    /**
+     * Check if the directive is applied to all the children of the
+     * supervisor, or to the failing one only
+     *
+     * @return True if the siblings of the failing child are affected too
+     */
+    public abstract boolean isAllForOne();
+}
@@ -37,10 +37,29 @@
  */
 package io.github.codepr.jas.actors;
 
+import io.github.codepr.jas.actors.mailbox.BoundedMailBox;
+import io.github.codepr.jas.actors.mailbox.OverflowStrategy;
 import io.github.codepr.jas.actors.utils.ActorSystemFactory;
 import io.github.codepr.jas.actors.utils.actors.TrivialActor;
+import io.github.codepr.jas.actors.utils.actors.counter.CounterActor;
+import io.github.codepr.jas.actors.utils.actors.ping.pong.PingPongActor;
+import io.github.codepr.jas.actors.utils.messages.TrivialMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.CounterMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.Get;
+import io.github.codepr.jas.actors.utils.messages.counter.Increment;
+import io.github.codepr.jas.actors.utils.messages.counter.Result;
+import io.github.codepr.jas.actors.utils.messages.ping.pong.PingMessage;
 
+import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
+import java.rmi.server.RemoteObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -66,6 +85,148 @@ public class ActorRefTest {
         system = ActorSystemFactory.buildActorSystem();
     }
 
+    @Test
+    public void shouldReplyToTheRightSender() throws InterruptedException, RemoteException {
+        final TestActorRef pong = new TestActorRef(system.actorOf(PingPongActor.class));
+        final TestActorRef[] pings = new TestActorRef[200];
+        for (int i = 0; i < pings.length; i++)
+            pings[i] = new TestActorRef(system.actorOf(PingPongActor.class));
+        Thread[] senders = new Thread[4];
+        for (int t = 0; t < senders.length; t++) {
+            final int offset = t;
+            senders[t] = new Thread(() -> {
+                    try {
+                        for (int i = offset; i < pings.length; i += senders.length)
+                            pings[i].send(new PingMessage(), pong);
+                    } catch (RemoteException e) {
+                        e.printStackTrace();
+                    }
+                });
+            senders[t].start();
+        }
+        for (Thread sender : senders)
+            sender.join();
+        Thread.sleep(1000);
+        for (TestActorRef ping : pings) {
+            PingPongActor actor = (PingPongActor) ping.getUnderlyingActor(system);
+            Assert.assertNotNull("Every sender should receive its own reply", actor.getLastMessage());
+            Assert.assertEquals("Every sender should receive a pong", "Pong", actor.getLastMessage().getMessage());
+        }
+    }
+
+    @Test(expected = NoSuchObjectException.class)
+    public void shouldNotExportLocalReferences() throws NoSuchObjectException {
+        ActorRef<? extends Message> ref = system.actorOf(TrivialActor.class);
+        Assert.assertFalse("Local references should not be remote objects", ref instanceof RemoteObject);
+        RemoteObject.toStub(ref);
+    }
+
+    @Test
+    public void shouldCompleteAnAskWithTheReply() throws Exception {
+        TestActorRef<CounterMessage> counter = new TestActorRef(system.actorOf(CounterActor.class));
+        for (int i = 0; i < 10; i++)
+            counter.send(new Increment(), counter);
+        CounterMessage reply = counter.ask(new Get(), counter, 1, TimeUnit.SECONDS).get();
+        Assert.assertEquals("The reply should carry the current value of the counter",
+                            10, ((Result) reply).getResult());
+    }
+
+    @Test
+    public void shouldCompleteConcurrentAsksWithTheirOwnReply() throws Exception {
+        TestActorRef<CounterMessage> counter = new TestActorRef(system.actorOf(CounterActor.class));
+        CompletableFuture<CounterMessage>[] replies = new CompletableFuture[1000];
+        for (int i = 0; i < replies.length; i++) {
+            counter.send(new Increment(), counter);
+            replies[i] = counter.ask(new Get(), counter, 1, TimeUnit.SECONDS);
+        }
+        for (int i = 0; i < replies.length; i++)
+            Assert.assertEquals("Every ask should be completed by its own reply",
+                                i + 1, ((Result) replies[i].get()).getResult());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void shouldTimeoutAnAskWithoutReply() throws Throwable {
+        TestActorRef<TrivialMessage> trivial = new TestActorRef(system.actorOf(TrivialActor.class));
+        try {
+            trivial.ask(new TrivialMessage(), trivial, 100, TimeUnit.MILLISECONDS).get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Test
+    public void shouldSendABatchOfMessages() throws Exception {
+        TestActorRef<CounterMessage> counter = new TestActorRef(system.actorOf(CounterActor.class));
+        counter.sendAll(Collections.nCopies(1000, new Increment()), counter);
+        CounterMessage reply = counter.ask(new Get(), counter, 1, TimeUnit.SECONDS).get();
+        Assert.assertEquals("Every message of the batch should be processed", 1000, ((Result) reply).getResult());
+    }
+
+    @Test
+    public void shouldSendABatchLargerThanABlockingMailBox() throws Exception {
+        TestActorRef<CounterMessage> counter =
+            new TestActorRef(system.actorOf(CounterActor.class, () -> new BoundedMailBox<>(16, OverflowStrategy.BLOCK)));
+        counter.sendAll(Collections.nCopies(1000, new Increment()), counter);
+        CounterMessage reply = counter.ask(new Get(), counter, 1, TimeUnit.SECONDS).get();
+        Assert.assertEquals("Every message of the batch should be processed", 1000, ((Result) reply).getResult());
+    }
+
+    @Test
+    public void shouldBroadcastAMessage() throws Exception {
+        List<ActorRef<CounterMessage>> counters = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            counters.add((ActorRef<CounterMessage>) system.actorOf(CounterActor.class));
+        TestActorRef<CounterMessage> sender = new TestActorRef(counters.get(0));
+        sender.broadcast(new Increment(), counters);
+        for (ActorRef<CounterMessage> counter : counters) {
+            CounterMessage reply = sender.ask(new Get(), counter, 1, TimeUnit.SECONDS).get();
+            Assert.assertEquals("Every actor should receive the message", 1, ((Result) reply).getResult());
+        }
+    }
+
+    @Test
+    public void shouldDropMessagesMisdirectedThroughATemporaryReference() throws Exception {
+        PromiseActorRef<CounterMessage> promise =
+            new PromiseActorRef<>((AbsActorSystem) system, 1, TimeUnit.SECONDS);
+        ActorRef<CounterMessage> counter = (ActorRef<CounterMessage>) system.actorOf(CounterActor.class);
+        promise.send(new Increment(), counter);
+        promise.sendAll(Collections.nCopies(2, new Increment()), counter);
+        Assert.assertEquals("Misdirected messages should be dead letters", 3, promise.getDeadLetterCount());
+        Assert.assertFalse("Misdirected messages should not complete the future", promise.getFuture().isDone());
+    }
+
+    @Test
+    public void shouldNotRestartAnActorMisusingATemporaryReference() throws Exception {
+        TestActorRef<CounterMessage> misdirecting = new TestActorRef(system.actorOf(MisdirectingActor.class));
+        for (int i = 0; i < 10; i++)
+            misdirecting.send(new Increment(), misdirecting);
+        CounterMessage reply = misdirecting.ask(new Get(), misdirecting, 1, TimeUnit.SECONDS).get();
+        Assert.assertEquals("The actor should keep its state and reply", 10, ((Result) reply).getResult());
+    }
+
+    /**
+     * Counter sending its result through the temporary sender of an asked
+     * message by mistake before replying to it
+     */
+    public static class MisdirectingActor extends AbsActor<CounterMessage> {
+
+        private int counter = 0;
+
+        @Override
+        public void receive(CounterMessage message) {
+            if (message instanceof Increment) {
+                counter++;
+            } else if (message instanceof Get) {
+                try {
+                    sender.send(new Result(counter), self);
+                    self.send(new Result(counter), sender);
+                } catch (RemoteException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
     /**
      * Stops the {@code system}
      */
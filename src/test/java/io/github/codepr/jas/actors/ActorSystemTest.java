@@ -39,13 +39,40 @@
  */
 package io.github.codepr.jas.actors;
 
+import io.github.codepr.jas.actors.dispatcher.ForkJoinDispatcher;
+import io.github.codepr.jas.actors.dispatcher.PinnedDispatcher;
+import io.github.codepr.jas.actors.dispatcher.VirtualThreadDispatcher;
 import io.github.codepr.jas.actors.exceptions.NoSuchActorException;
+import io.github.codepr.jas.actors.exceptions.StashOverflowException;
+import io.github.codepr.jas.actors.mailbox.BoundedMailBox;
+import io.github.codepr.jas.actors.mailbox.OverflowStrategy;
+import io.github.codepr.jas.actors.scheduler.Cancellable;
 import io.github.codepr.jas.actors.utils.ActorSystemFactory;
 import io.github.codepr.jas.actors.utils.actors.TrivialActor;
+import io.github.codepr.jas.actors.utils.actors.counter.CounterActor;
+import io.github.codepr.jas.actors.utils.actors.ping.pong.PingPongActor;
 import io.github.codepr.jas.actors.utils.messages.TrivialMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.CounterMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.Get;
+import io.github.codepr.jas.actors.utils.messages.counter.Increment;
+import io.github.codepr.jas.actors.utils.messages.counter.Result;
+import io.github.codepr.jas.actors.utils.messages.ping.pong.PingMessage;
+import io.github.codepr.jas.actors.utils.messages.ping.pong.PingPongMessage;
+import io.github.codepr.jas.actors.utils.messages.ping.pong.PongMessage;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -127,6 +154,491 @@ public class ActorSystemTest {
         system.stop(ref1);
     }
 
+    @Test
+    public void shouldNotPinAThreadForEveryActor() throws InterruptedException, RemoteException {
+        TestActorRef[] counters = new TestActorRef[5000];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new TestActorRef(system.actorOf(CounterActor.class));
+            counters[i].send(new Increment(), counters[i]);
+        }
+        Thread.sleep(1000);
+        ForkJoinDispatcher dispatcher = (ForkJoinDispatcher) ((AbsActorSystem) system).getDispatcher();
+        Assert.assertTrue("Actors should share a bounded pool of threads",
+                          dispatcher.getPoolSize() <= Runtime.getRuntime().availableProcessors());
+        for (TestActorRef counter : counters)
+            Assert.assertEquals("Every actor should have processed its message",
+                                1, ((CounterActor) counter.getUnderlyingActor(system)).getCounter());
+    }
+
+    @Test
+    public void shouldProcessMessagesInVirtualThreadsMode() throws InterruptedException, RemoteException {
+        Assume.assumeTrue("Virtual threads require Java 21", VirtualThreadDispatcher.isSupported());
+        ActorSystem virtualSystem =
+            new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, ActorSystem.ExecutionMode.VIRTUAL_THREADS);
+        TestActorRef counter = new TestActorRef(virtualSystem.actorOf(CounterActor.class));
+        for (int i = 0; i < 100; i++)
+            counter.send(new Increment(), counter);
+        Thread.sleep(1000);
+        Assert.assertEquals("Every message should be processed in virtual threads mode",
+                            100, ((CounterActor) counter.getUnderlyingActor(virtualSystem)).getCounter());
+        virtualSystem.stop();
+    }
+
+    @Test
+    public void shouldCreateAnActorWithABoundedMailBox() throws InterruptedException, RemoteException {
+        TestActorRef counter = new TestActorRef(system.actorOf(CounterActor.class,
+                                                               () -> new BoundedMailBox<>(16, OverflowStrategy.BLOCK)));
+        for (int i = 0; i < 100; i++)
+            counter.send(new Increment(), counter);
+        Thread.sleep(1000);
+        Assert.assertEquals("No message should be lost blocking the sender",
+                            100, ((CounterActor) counter.getUnderlyingActor(system)).getCounter());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectVirtualThreadsModeWhenUnsupported() {
+        Assume.assumeFalse("Virtual threads are supported", VirtualThreadDispatcher.isSupported());
+        new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, ActorSystem.ExecutionMode.VIRTUAL_THREADS);
+    }
+
+    @Test
+    public void shouldNotBlockAnActorSendingToAFullMailBox() throws Exception {
+        // a single thread: the receiver can only run once the sender yields
+        ActorSystem single = new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, 1, 5);
+        try {
+            List<BoundedMailBox<CounterMessage>> mailBoxes = new ArrayList<>();
+            TestActorRef<CounterMessage> target =
+                new TestActorRef(single.actorOf(Props.create(CounterActor::new).withMailBox(() -> {
+                            BoundedMailBox<CounterMessage> mailBox = new BoundedMailBox<>(1, OverflowStrategy.BLOCK);
+                            mailBoxes.add(mailBox);
+                            return mailBox;
+                        })));
+            TestActorRef<CounterMessage> flooder =
+                new TestActorRef(single.actorOf(Props.create(() -> new FloodingActor(target, 3))));
+            Result reply = (Result) flooder.ask(new Get(), flooder, 1, TimeUnit.SECONDS).get();
+            Assert.assertEquals("The sender should reply right after sending", 3, reply.getResult());
+            Assert.assertEquals("Messages exceeding the capacity should be dead letters",
+                                2, mailBoxes.get(0).getDeadLetterCount());
+        } finally {
+            single.stop();
+        }
+    }
+
+    @Test
+    public void shouldNotLoseMessagesFromConcurrentSenders() throws InterruptedException, RemoteException {
+        final TestActorRef counter = new TestActorRef(system.actorOf(CounterActor.class));
+        CounterActor actor = (CounterActor) counter.getUnderlyingActor(system);
+        Thread[] senders = new Thread[4];
+        for (int i = 0; i < senders.length; i++) {
+            senders[i] = new Thread(() -> {
+                    try {
+                        for (int j = 0; j < 10000; j++)
+                            counter.send(new Increment(), counter);
+                    } catch (RemoteException e) {
+                        e.printStackTrace();
+                    }
+                });
+            senders[i].start();
+        }
+        for (Thread sender : senders)
+            sender.join();
+        system.stop(counter);
+        Assert.assertEquals("Every message should be processed exactly once", 40000, actor.getCounter());
+    }
+
+    @Test
+    public void shouldGenerateUniqueNames() throws RemoteException {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 10000; i++)
+            names.add(system.actorOf(TrivialActor.class).getName());
+        Assert.assertEquals("Every generated name should be unique", 10000, names.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNamesReservedToGeneratedOnes() {
+        system.actorOf(TrivialActor.class, ActorSystem.ActorMode.LOCAL, "$1");
+    }
+
+    @Test
+    public void shouldCreateAnActorFromProps() throws InterruptedException, RemoteException {
+        TestActorRef counter = new TestActorRef(system.actorOf(Props.create(CounterActor::new)
+                                                               .withMailBox(() -> new BoundedMailBox<>(16, OverflowStrategy.BLOCK))));
+        for (int i = 0; i < 100; i++)
+            counter.send(new Increment(), counter);
+        Thread.sleep(500);
+        Assert.assertEquals("The actor created from a supplier should process every message",
+                            100, ((CounterActor) counter.getUnderlyingActor(system)).getCounter());
+    }
+
+    @Test(expected = NoSuchActorException.class)
+    public void shouldNotCreateAnActorWithoutANoArgConstructor() {
+        system.actorOf(ParametricActor.class);
+    }
+
+    @Test
+    public void shouldProcessMessagesInBatches() throws InterruptedException, RemoteException {
+        TestActorRef counter = new TestActorRef(system.actorOf(BatchCounterActor.class));
+        counter.sendAll(Collections.nCopies(1000, new Increment()), counter);
+        BatchCounterActor actor = (BatchCounterActor) counter.getUnderlyingActor(system);
+        system.stop(counter);
+        Assert.assertEquals("Every message should be processed", 1000, actor.getCounter());
+        Assert.assertTrue("Messages should be received in batches", actor.getLargestBatch() > 1);
+    }
+
+    @Test
+    public void shouldBatchOnlyMessagesFromTheSameSender() throws InterruptedException, RemoteException {
+        TestActorRef<CounterMessage> counter = new TestActorRef(system.actorOf(SenderCounterActor.class));
+        TestActorRef<CounterMessage> first = new TestActorRef(system.actorOf(CounterActor.class));
+        TestActorRef<CounterMessage> second = new TestActorRef(system.actorOf(CounterActor.class));
+        first.sendAll(Collections.nCopies(100, new Increment()), counter);
+        second.sendAll(Collections.nCopies(50, new Increment()), counter);
+        first.sendAll(Collections.nCopies(25, new Increment()), counter);
+        SenderCounterActor actor = (SenderCounterActor) counter.getUnderlyingActor(system);
+        system.stop(counter);
+        Assert.assertEquals("Messages should be counted for their own sender",
+                            125, actor.getCount(first.getName()));
+        Assert.assertEquals("Messages should be counted for their own sender",
+                            50, actor.getCount(second.getName()));
+    }
+
+    @Test
+    public void shouldSendScheduledMessages() throws InterruptedException, RemoteException {
+        CountDownLatch once = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+        CountDownLatch periodically = new CountDownLatch(4);
+        ActorRef<CounterMessage> onceRef = (ActorRef<CounterMessage>) system.actorOf(Props.create(() -> new LatchActor(once)));
+        ActorRef<CounterMessage> neverRef = (ActorRef<CounterMessage>) system.actorOf(Props.create(() -> new LatchActor(never)));
+        ActorRef<CounterMessage> periodicRef =
+            (ActorRef<CounterMessage>) system.actorOf(Props.create(() -> new LatchActor(periodically)));
+        system.scheduleOnce(50, TimeUnit.MILLISECONDS, new Increment(), onceRef);
+        Cancellable cancelled = system.scheduleOnce(50, TimeUnit.MILLISECONDS, new Increment(), neverRef);
+        Assert.assertTrue("A pending message should be cancelled", cancelled.cancel());
+        Cancellable periodic = system.scheduleAtFixedRate(50, 20, TimeUnit.MILLISECONDS, new Increment(), periodicRef);
+        Assert.assertTrue("The message should be sent after the delay", once.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue("The message should be sent periodically", periodically.await(5, TimeUnit.SECONDS));
+        periodic.cancel();
+        Assert.assertEquals("A cancelled message should never be sent", 1, never.getCount());
+    }
+
+    @Test
+    public void shouldCancelAPeriodicMessageToAStoppedActor() throws InterruptedException, RemoteException {
+        TestActorRef counter = new TestActorRef(system.actorOf(CounterActor.class));
+        system.stop(counter);
+        Cancellable periodic = system.scheduleAtFixedRate(0, 10, TimeUnit.MILLISECONDS, new Increment(), counter);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!periodic.isCancelled() && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        Assert.assertTrue("The delivery should stop once the actor is gone", periodic.isCancelled());
+    }
+
+    @Test
+    public void shouldNotifyAnIdleActor() throws InterruptedException, RemoteException {
+        TestActorRef ref = new TestActorRef(system.actorOf(IdleActor.class));
+        IdleActor actor = (IdleActor) ref.getUnderlyingActor(system);
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(20);
+            ref.send(new TrivialMessage(), ref);
+        }
+        Assert.assertEquals("A busy actor should not time out", 1, actor.latch.getCount());
+        Assert.assertTrue("An idle actor should time out", actor.latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldRunAnActorOnItsOwnPinnedDispatcher() throws Exception {
+        TestActorRef<PingPongMessage> ref =
+            new TestActorRef(system.actorOf(Props.create(PingPongActor.class).withDispatcher(PinnedDispatcher::new)));
+        Assert.assertEquals("A pinned thread should be started for the actor", 1, pinnedThreads().size());
+        PingPongMessage reply = ref.ask(new PingMessage(), ref, 1, TimeUnit.SECONDS).get();
+        Assert.assertTrue("The actor should reply from its pinned thread", reply instanceof PongMessage);
+        Thread pinned = pinnedThreads().iterator().next();
+        system.stop(ref);
+        pinned.join(1000);
+        Assert.assertFalse("The pinned thread should stop along with the actor", pinned.isAlive());
+    }
+
+    private static Set<Thread> pinnedThreads() {
+        Set<Thread> pinned = new HashSet<>();
+        for (Thread t : Thread.getAllStackTraces().keySet())
+            if (t.getName().startsWith("jas-pinned-") && t.isAlive())
+                pinned.add(t);
+        return pinned;
+    }
+
+    @Test
+    public void shouldProcessEveryMessageAcceptedBeforeStopping() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            TestActorRef<CounterMessage> ref = new TestActorRef(system.actorOf(CounterActor.class));
+            CounterActor counter = (CounterActor) ref.getUnderlyingActor(system);
+            AtomicInteger accepted = new AtomicInteger();
+            Thread[] producers = new Thread[4];
+            for (int i = 0; i < producers.length; i++) {
+                producers[i] = new Thread(() -> {
+                        try {
+                            while (true) {
+                                ref.send(new Increment(), ref);
+                                accepted.incrementAndGet();
+                            }
+                        } catch (NoSuchActorException e) {
+                            // stopped
+                        } catch (RemoteException e) {
+                            e.printStackTrace();
+                        }
+                    });
+                producers[i].start();
+            }
+            Thread.sleep(5);
+            system.stop(ref);
+            for (Thread producer : producers)
+                producer.join();
+            Assert.assertEquals("Every accepted message should be processed",
+                                accepted.get(), counter.getCounter());
+        }
+    }
+
+    @Test
+    public void shouldStopAnActorFromAnotherOneWithoutBlocking() throws Exception {
+        // a single thread: the run of the stopped actor is queued behind the stopping one
+        ActorSystem single = new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, 1, 5);
+        try {
+            TestActorRef<CounterMessage> target = new TestActorRef(single.actorOf(CounterActor.class));
+            CounterActor counter = (CounterActor) target.getUnderlyingActor(single);
+            TestActorRef<CounterMessage> stopper =
+                new TestActorRef(single.actorOf(Props.create(() -> new StopperActor(single, target))));
+            Result reply = (Result) stopper.ask(new Get(), stopper, 1, TimeUnit.SECONDS).get();
+            Assert.assertEquals("The stopper should reply right after stopping", 0, reply.getResult());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (counter.getCounter() == 0 && System.nanoTime() < deadline)
+                Thread.sleep(5);
+            Assert.assertEquals("The message left in the mailbox should be processed", 1, counter.getCounter());
+            Assert.assertFalse("The actor should be stopped", ((AbsActorSystem) single).contains(target));
+        } finally {
+            single.stop();
+        }
+    }
+
+    @Test
+    public void shouldNotifyTheWatchersOfAStoppedActor() throws InterruptedException, RemoteException {
+        TestActorRef target = new TestActorRef(system.actorOf(TrivialActor.class));
+        WatchingActor watcher = (WatchingActor) new TestActorRef(system.actorOf(WatchingActor.class))
+            .getUnderlyingActor(system);
+        WatchingActor unwatched = (WatchingActor) new TestActorRef(system.actorOf(WatchingActor.class))
+            .getUnderlyingActor(system);
+        watcher.watch(target);
+        unwatched.watch(target);
+        unwatched.unwatch(target);
+        system.stop(target);
+        Assert.assertTrue("The watcher should be notified", watcher.latch.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals("The notification should carry the stopped actor",
+                            target.getName(), watcher.terminated.getName());
+        WatchingActor late = (WatchingActor) new TestActorRef(system.actorOf(WatchingActor.class))
+            .getUnderlyingActor(system);
+        late.watch(target);
+        Assert.assertTrue("Watching a stopped actor should notify right away",
+                          late.latch.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals("An actor not watching anymore should not be notified", 1, unwatched.latch.getCount());
+    }
+
+    @Test
+    public void shouldNotStashBeyondTheCapacity() throws InterruptedException, RemoteException {
+        TestActorRef ref = new TestActorRef(system.actorOf(StashingActor.class));
+        StashingActor actor = (StashingActor) ref.getUnderlyingActor(system);
+        for (int i = 0; i < 3; i++)
+            ref.send(new TrivialMessage(), ref);
+        system.stop(ref);
+        Assert.assertEquals("The stash should not grow beyond its capacity", 2, actor.stashed);
+        Assert.assertEquals("The overflowing message should be rejected", 1, actor.overflows);
+    }
+
+    /**
+     * Actor stashing every message in a stash of two messages
+     */
+    public static class StashingActor extends AbsActor<TrivialMessage> {
+
+        private int stashed;
+        private int overflows;
+
+        public StashingActor() {
+            setStashCapacity(2);
+        }
+
+        @Override
+        public void receive(TrivialMessage message) {
+            try {
+                stash();
+            } catch (StashOverflowException e) {
+                overflows++;
+            }
+            stashed = getStashSize();
+        }
+    }
+
+    /**
+     * Actor counting down a latch when idle for 100 milliseconds
+     */
+    public static class IdleActor extends AbsActor<TrivialMessage> {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        public IdleActor() {
+            setReceiveTimeout(100, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void receive(TrivialMessage message) {}
+
+        @Override
+        protected void onReceiveTimeout() {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Actor counting down a latch on every message
+     */
+    public static class LatchActor extends AbsActor<CounterMessage> {
+
+        private final CountDownLatch latch;
+
+        public LatchActor(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void receive(CounterMessage message) {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Actor sending a number of messages to its target on {@code Get}
+     */
+    public static class FloodingActor extends AbsActor<CounterMessage> {
+
+        private final ActorRef<CounterMessage> target;
+        private final int messages;
+
+        public FloodingActor(ActorRef<CounterMessage> target, int messages) {
+            this.target = target;
+            this.messages = messages;
+        }
+
+        @Override
+        public void receive(CounterMessage message) {
+            try {
+                for (int i = 0; i < messages; i++)
+                    target.send(new Increment(), target);
+                self.send(new Result(messages), sender);
+            } catch (RemoteException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Actor sending a message to its target and stopping it right after,
+     * from inside {@code receive}
+     */
+    public static class StopperActor extends AbsActor<CounterMessage> {
+
+        private final ActorSystem system;
+        private final ActorRef<CounterMessage> target;
+
+        public StopperActor(ActorSystem system, ActorRef<CounterMessage> target) {
+            this.system = system;
+            this.target = target;
+        }
+
+        @Override
+        public void receive(CounterMessage message) {
+            try {
+                target.send(new Increment(), target);
+                system.stop(target);
+                self.send(new Result(0), sender);
+            } catch (RemoteException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Actor counting down a latch once a watched actor is stopped
+     */
+    public static class WatchingActor extends AbsActor<TrivialMessage> {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile ActorRef<? extends Message> terminated;
+
+        @Override
+        public void receive(TrivialMessage message) {}
+
+        @Override
+        protected void onTerminated(Terminated terminated) {
+            this.terminated = terminated.getActor();
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Counter actor receiving messages in batches
+     */
+    public static class BatchCounterActor extends CounterActor {
+
+        private int counter = 0;
+        private int largestBatch = 0;
+
+        @Override
+        protected void receiveBatch(List<CounterMessage> messages) {
+            counter += messages.size();
+            largestBatch = Math.max(largestBatch, messages.size());
+        }
+
+        @Override
+        public int getCounter() {
+            return counter;
+        }
+
+        public int getLargestBatch() {
+            return largestBatch;
+        }
+    }
+
+    /**
+     * Actor counting the messages received in batches by sender
+     */
+    public static class SenderCounterActor extends AbsActor<CounterMessage> {
+
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        @Override
+        public void receive(CounterMessage message) {
+            receiveBatch(Collections.singletonList(message));
+        }
+
+        @Override
+        protected void receiveBatch(List<CounterMessage> messages) {
+            try {
+                counts.merge(sender.getName(), messages.size(), Integer::sum);
+            } catch (RemoteException e) {
+                e.printStackTrace();
+            }
+        }
+
+        public int getCount(String sender) {
+            return counts.getOrDefault(sender, 0);
+        }
+    }
+
+    /**
+     * Actor that can only be created through a {@code Props} supplier
+     */
+    public static class ParametricActor extends AbsActor<TrivialMessage> {
+
+        public ParametricActor(int parameter) {}
+
+        @Override
+        public void receive(TrivialMessage message) {}
+    }
+
     /**
      * Stops the {@code system}
      */
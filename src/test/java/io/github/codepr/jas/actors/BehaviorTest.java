@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors;
+
+import io.github.codepr.jas.actors.exceptions.UnsupportedMessageException;
+import io.github.codepr.jas.actors.utils.ActorSystemFactory;
+import io.github.codepr.jas.actors.utils.messages.counter.CounterMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.Decrement;
+import io.github.codepr.jas.actors.utils.messages.counter.Get;
+import io.github.codepr.jas.actors.utils.messages.counter.Increment;
+import io.github.codepr.jas.actors.utils.messages.counter.Result;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases about {@link Behavior} type and behavior switching of actors.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class BehaviorTest {
+
+    private ActorSystem system;
+
+    /**
+     * Initializes the {@code system} with a concrete implementation before each test.
+     */
+    @Before
+    public void init() {
+        system = ActorSystemFactory.buildActorSystem();
+    }
+
+    @Test
+    public void shouldApplyTheFirstMatchingHandler() {
+        List<String> handled = new ArrayList<>();
+        Behavior<CounterMessage> behavior = Behavior.<CounterMessage>builder()
+            .match(Increment.class, m -> handled.add("increment"))
+            .match(CounterMessage.class, m -> handled.add("counter"))
+            .match(Decrement.class, m -> handled.add("decrement"))
+            .build();
+        behavior.apply(new Increment());
+        behavior.apply(new Decrement());
+        behavior.apply(new Increment());
+        Assert.assertEquals("Messages should be handled by the first matching handler",
+                            "[increment, counter, increment]", handled.toString());
+    }
+
+    @Test(expected = UnsupportedMessageException.class)
+    public void shouldRejectAnUnhandledMessage() {
+        Behavior<CounterMessage> behavior = Behavior.<CounterMessage>builder()
+            .match(Increment.class, m -> {})
+            .build();
+        Assert.assertFalse("The behavior should not be defined for Get", behavior.isDefinedAt(new Get()));
+        behavior.apply(new Get());
+    }
+
+    @Test
+    public void shouldSwitchBehavior() throws RemoteException {
+        TestActorRef<CounterMessage> ref = new TestActorRef(system.actorOf(SwitchingActor.class));
+        SwitchingActor actor = (SwitchingActor) ref.getUnderlyingActor(system);
+        // receive: +1, then stack the doubling behavior
+        ref.send(new Increment(), ref);
+        ref.send(new Get(), ref);
+        // doubling: +2, +2, then back to receive
+        ref.send(new Increment(), ref);
+        ref.send(new Increment(), ref);
+        ref.send(new Decrement(), ref);
+        // receive: +1
+        ref.send(new Increment(), ref);
+        system.stop(ref);
+        Assert.assertEquals("Every message should be handled by the behavior in place", 6, actor.getCounter());
+    }
+
+    /**
+     * Counter actor incrementing by two after a {@code Get}, until a
+     * {@code Decrement}
+     */
+    public static class SwitchingActor extends AbsActor<CounterMessage> {
+
+        private int counter = 0;
+
+        private final Behavior<CounterMessage> doubling = Behavior.<CounterMessage>builder()
+            .match(Increment.class, m -> counter += 2)
+            .match(Decrement.class, m -> unbecome())
+            .build();
+
+        @Override
+        public void receive(CounterMessage message) {
+            if (message instanceof Increment)
+                counter++;
+            else if (message instanceof Get)
+                become(doubling, false);
+            else if (!(message instanceof Result))
+                throw new UnsupportedMessageException(message);
+        }
+
+        public int getCounter() {
+            return counter;
+        }
+    }
+
+    /**
+     * Stops the {@code system}
+     */
+    @After
+    public void tearDown() throws RemoteException { system.stop(); }
+}
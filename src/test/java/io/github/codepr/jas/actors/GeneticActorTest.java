@@ -43,6 +43,7 @@ import io.github.codepr.jas.actors.utils.messages.genetic.*;
 import io.github.codepr.jas.actors.utils.actors.TrivialActor;
 
 import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -67,7 +68,6 @@ public class GeneticActorTest {
 
     @Test
     public void shouldCalcFittestIndividual() throws InterruptedException, RemoteException {
-        TestActorRef popSampleRef = new TestActorRef(system.actorOf(GeneticActor.class));
         byte[] solution = new byte[32];
         // init the solution
         for (int i = 0; i < solution.length; i++) {
@@ -77,8 +77,8 @@ public class GeneticActorTest {
         solution[18] = 0;
         solution[23] = 0;
 
-        GeneticActor popSampleActor = (GeneticActor) popSampleRef.getUnderlyingActor(system);
-        popSampleActor.initPopulationAndSolution(15, solution);
+        TestActorRef popSampleRef =
+            new TestActorRef(system.actorOf(Props.create(() -> new GeneticActor(15, solution))));
         while (((GeneticActor) popSampleRef.getUnderlyingActor(system)).getFitness() < 32) {
             TestActorRef nature = new TestActorRef(system.actorOf(TrivialActor.class));
             nature.send(new Evolve(), popSampleRef);
@@ -91,6 +91,18 @@ public class GeneticActorTest {
                 ((GeneticActor) popSampleRef.getUnderlyingActor(system)).printFittest());
     }
 
+    @Test
+    public void shouldStashMessagesUntilInitialized() throws Exception {
+        byte[] solution = new byte[32];
+        TestActorRef<GeneticMessage> popSampleRef = new TestActorRef(system.actorOf(GeneticActor.class));
+        for (int i = 0; i < 5; i++)
+            popSampleRef.send(new Evolve(), popSampleRef);
+        popSampleRef.send(new Init(15, solution), popSampleRef);
+        GeneticMessage reply = popSampleRef.ask(new Get(), popSampleRef, 1, TimeUnit.SECONDS).get();
+        Assert.assertTrue("Messages sent before Init should evolve the population once initialized",
+                          ((Result) reply).getResult() > 0);
+    }
+
     /**
      * Stops the {@code system}
      */
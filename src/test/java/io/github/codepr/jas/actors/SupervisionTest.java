@@ -0,0 +1,237 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors;
+
+import io.github.codepr.jas.actors.supervision.AllForOneStrategy;
+import io.github.codepr.jas.actors.supervision.Directive;
+import io.github.codepr.jas.actors.supervision.OneForOneStrategy;
+import io.github.codepr.jas.actors.supervision.SupervisorStrategy;
+import io.github.codepr.jas.actors.utils.ActorSystemFactory;
+import io.github.codepr.jas.actors.utils.messages.counter.CounterMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.Decrement;
+import io.github.codepr.jas.actors.utils.messages.counter.Get;
+import io.github.codepr.jas.actors.utils.messages.counter.Increment;
+import io.github.codepr.jas.actors.utils.messages.counter.Result;
+
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases about supervision of failing actors.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class SupervisionTest {
+
+    private ActorSystem system;
+
+    /**
+     * Initializes the {@code system} with a concrete implementation before each test.
+     */
+    @Before
+    public void init() {
+        system = ActorSystemFactory.buildActorSystem();
+    }
+
+    @Test
+    public void shouldRestartAFailingActorKeepingItsMailbox() throws Exception {
+        TestActorRef<CounterMessage> ref = new TestActorRef(system.actorOf(FragileCounter.class));
+        AbsActor<CounterMessage> failed = (AbsActor<CounterMessage>) ref.getUnderlyingActor(system);
+        ref.send(new Increment(), ref);
+        ref.send(new Increment(), ref);
+        ref.send(new Decrement(), ref);
+        ref.send(new Increment(), ref);
+        Assert.assertEquals("The restarted actor should start over and process the following messages",
+                            1, count(ref));
+        Assert.assertNotSame("The reference should point to a new instance",
+                             failed, ref.getUnderlyingActor(system));
+    }
+
+    @Test
+    public void shouldRestartAllTheChildren() throws Exception {
+        TestActorRef<CounterMessage> ref = new TestActorRef(system.actorOf(Supervisor.class));
+        Supervisor supervisor = (Supervisor) ref.getUnderlyingActor(system);
+        ref.send(new Increment(), ref);
+        ref.send(new Increment(), ref);
+        Assert.assertEquals("The supervisor should have created two children", 2, count(ref));
+        List<ActorRef<? extends Message>> children = supervisor.getChildren();
+        ActorRef<CounterMessage> first = (ActorRef<CounterMessage>) children.get(0);
+        ActorRef<CounterMessage> second = (ActorRef<CounterMessage>) children.get(1);
+        second.send(new Increment(), second);
+        Assert.assertEquals("The sibling should count its messages", 1, count(second));
+        first.send(new Decrement(), first);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (count(second) != 0 && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        Assert.assertEquals("The sibling should be restarted as well", 0, count(second));
+        system.stop(ref);
+        Assert.assertFalse("Children should be stopped along with their parent", alive(first));
+        Assert.assertFalse("Children should be stopped along with their parent", alive(second));
+    }
+
+    @Test
+    public void shouldStopAnActorRestartedTooOften() throws Exception {
+        TestActorRef<CounterMessage> ref = new TestActorRef(system.actorOf(StrictSupervisor.class));
+        Supervisor supervisor = (Supervisor) ref.getUnderlyingActor(system);
+        ref.send(new Increment(), ref);
+        Assert.assertEquals("The supervisor should have created a child", 1, count(ref));
+        ActorRef<CounterMessage> child = (ActorRef<CounterMessage>) supervisor.getChildren().get(0);
+        child.send(new Decrement(), child);
+        child.send(new Increment(), child);
+        Assert.assertEquals("The child should be restarted once", 1, count(child));
+        child.send(new Decrement(), child);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (alive(child) && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        Assert.assertFalse("The child should be stopped on the second failure", alive(child));
+        Assert.assertEquals("The stopped child should be removed from its parent", 0, count(ref));
+    }
+
+    @Test
+    public void shouldRestartTheSubtreeOfAnActorRestartedOnEscalation() throws Exception {
+        TestActorRef<CounterMessage> ref = new TestActorRef(system.actorOf(EscalatingSupervisor.class));
+        Supervisor supervisor = (Supervisor) ref.getUnderlyingActor(system);
+        ref.send(new Increment(), ref);
+        ref.send(new Increment(), ref);
+        Assert.assertEquals("The supervisor should have created two children", 2, count(ref));
+        List<ActorRef<? extends Message>> children = supervisor.getChildren();
+        ActorRef<CounterMessage> first = (ActorRef<CounterMessage>) children.get(0);
+        ActorRef<CounterMessage> second = (ActorRef<CounterMessage>) children.get(1);
+        first.send(new Increment(), first);
+        second.send(new Increment(), second);
+        Assert.assertEquals("The failing child should count its messages", 1, count(first));
+        Assert.assertEquals("The sibling should count its messages", 1, count(second));
+        first.send(new Decrement(), first);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while ((count(first) != 0 || count(second) != 0) && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        Assert.assertNotSame("The supervisor should be restarted by its own supervisor",
+                             supervisor, ref.getUnderlyingActor(system));
+        Assert.assertEquals("The failing child should be restarted along with its parent", 0, count(first));
+        Assert.assertEquals("The sibling should be restarted along with its parent", 0, count(second));
+        Assert.assertEquals("Children should survive the restart of their parent", 2, count(ref));
+    }
+
+    private boolean alive(ActorRef<? extends Message> ref) {
+        return ((AbsActorSystem) system).contains(ref);
+    }
+
+    private static int count(ActorRef<CounterMessage> ref) throws Exception {
+        return ((Result) ref.ask(new Get(), ref, 1, TimeUnit.SECONDS).get()).getResult();
+    }
+
+    /**
+     * Counter actor failing on {@code Decrement}
+     */
+    public static class FragileCounter extends AbsActor<CounterMessage> {
+
+        private int counter = 0;
+
+        @Override
+        public void receive(CounterMessage message) {
+            if (message instanceof Increment)
+                counter++;
+            else if (message instanceof Decrement)
+                throw new IllegalStateException("Counters never go down");
+            else if (message instanceof Get) {
+                try {
+                    self.send(new Result(counter), sender);
+                } catch (RemoteException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a {@code FragileCounter} child on every {@code Increment},
+     * replies to {@code Get} with the number of children, restarts all the
+     * children as soon as one of them fails
+     */
+    public static class Supervisor extends AbsActor<CounterMessage> {
+
+        private static final SupervisorStrategy STRATEGY = new AllForOneStrategy(cause -> Directive.RESTART);
+
+        @Override
+        protected SupervisorStrategy supervisorStrategy() {
+            return STRATEGY;
+        }
+
+        @Override
+        public void receive(CounterMessage message) {
+            if (message instanceof Increment)
+                actorOf(Props.create(FragileCounter.class));
+            else if (message instanceof Get) {
+                try {
+                    self.send(new Result(getChildren().size()), sender);
+                } catch (RemoteException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Supervisor allowing a single restart per minute to every child
+     */
+    public static class StrictSupervisor extends Supervisor {
+
+        private static final SupervisorStrategy STRATEGY =
+            new OneForOneStrategy(1, 1, TimeUnit.MINUTES, cause -> Directive.RESTART);
+
+        @Override
+        protected SupervisorStrategy supervisorStrategy() {
+            return STRATEGY;
+        }
+    }
+
+    /**
+     * Supervisor escalating the failures of its children, restarted by the
+     * default strategy of the system
+     */
+    public static class EscalatingSupervisor extends Supervisor {
+
+        private static final SupervisorStrategy STRATEGY = new OneForOneStrategy(cause -> Directive.ESCALATE);
+
+        @Override
+        protected SupervisorStrategy supervisorStrategy() {
+            return STRATEGY;
+        }
+    }
+
+    /**
+     * Stops the {@code system}
+     */
+    @After
+    public void tearDown() throws RemoteException { system.stop(); }
+}
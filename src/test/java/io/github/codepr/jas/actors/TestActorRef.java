@@ -25,6 +25,9 @@
 package io.github.codepr.jas.actors;
 
 import java.rmi.RemoteException;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import io.github.codepr.jas.actors.*;
 
 /**
@@ -60,6 +63,36 @@ public class TestActorRef<T extends Message> implements ActorRef<T> {
         reference.send(message, to);
     }
 
+    @Override
+    public void sendAll(Collection<T> messages, ActorRef<T> to) throws RemoteException {
+        reference.sendAll(messages, to);
+    }
+
+    @Override
+    public void broadcast(T message, Collection<ActorRef<T>> to) throws RemoteException {
+        reference.broadcast(message, to);
+    }
+
+    @Override
+    public CompletableFuture<T> ask(T message, ActorRef<T> to, long timeout, TimeUnit unit) throws RemoteException {
+        return reference.ask(message, to, timeout, unit);
+    }
+
+    @Override
+    public void watch(ActorRef<? extends Message> watcher) throws RemoteException {
+        reference.watch(watcher);
+    }
+
+    @Override
+    public void unwatch(ActorRef<? extends Message> watcher) throws RemoteException {
+        reference.unwatch(watcher);
+    }
+
+    @Override
+    public void notifyTerminated(ActorRef<? extends Message> actor) throws RemoteException {
+        reference.notifyTerminated(actor);
+    }
+
     @Override
     public String getName() throws RemoteException {
         return reference.getName();
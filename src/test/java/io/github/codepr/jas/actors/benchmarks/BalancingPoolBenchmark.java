@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.benchmarks;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.ActorSystem;
+import io.github.codepr.jas.actors.ActorSystem.SystemMode;
+import io.github.codepr.jas.actors.ActorSystemImpl;
+import io.github.codepr.jas.actors.Message;
+import io.github.codepr.jas.actors.Props;
+import io.github.codepr.jas.actors.routers.BalancingPool;
+import io.github.codepr.jas.actors.routers.Pool;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Skewed workload benchmark: every tenth task blocks its routee for a few
+ * milliseconds while the others are immediate, comparing a round-robin pool,
+ * where fast tasks queue behind slow ones, with a balancing pool sharing a
+ * single mailbox among the routees.
+ * Run with {@code java -cp target/classes:target/test-classes
+ * io.github.codepr.jas.actors.benchmarks.BalancingPoolBenchmark [routees] [tasks] [slowMillis]}
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class BalancingPoolBenchmark {
+
+    private static CountDownLatch done;
+
+    private static final LongAdder fastLatency = new LongAdder();
+
+    /**
+     * A task taking {@code millis} milliseconds to be processed
+     */
+    public static class Task implements Message {
+
+        private final long sentAt = System.nanoTime();
+        private final long millis;
+
+        public Task(long millis) {
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * Worker processing tasks, blocking the thread for slow ones
+     */
+    public static class WorkerActor extends AbsActor<Task> {
+
+        @Override
+        public void receive(Task task) {
+            if (task.millis > 0) {
+                try {
+                    Thread.sleep(task.millis);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            } else {
+                fastLatency.add(System.nanoTime() - task.sentAt);
+            }
+            done.countDown();
+        }
+    }
+
+    private static void run(String label, Pool pool, int routees, int tasks, long slowMillis)
+        throws InterruptedException, RemoteException {
+        // one thread per routee, slow tasks block their thread
+        ActorSystem system = new ActorSystemImpl(SystemMode.DEFAULT, routees, 5);
+        ActorRef<Task> router = (ActorRef<Task>) system.actorOf(Props.create(WorkerActor.class).withRouter(pool));
+        done = new CountDownLatch(tasks);
+        fastLatency.reset();
+        int fast = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            if (i % 10 == 0) {
+                router.send(new Task(slowMillis), router);
+            } else {
+                router.send(new Task(0), router);
+                fast++;
+            }
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        system.stop();
+        System.out.println(" [*] " + label + ": " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms, fast task mean latency "
+                           + TimeUnit.NANOSECONDS.toMicros(fastLatency.sum() / fast) + " us");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int routees = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int tasks = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        long slowMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        System.out.println(" [*] " + routees + " routees, " + tasks + " tasks, one in ten blocking " + slowMillis + " ms");
+        // warm up
+        run("warm up", Pool.roundRobin(routees), routees, tasks / 10, 1);
+        run("warm up", new BalancingPool(routees), routees, tasks / 10, 1);
+        run("ROUND_ROBIN", Pool.roundRobin(routees), routees, tasks, slowMillis);
+        run("BALANCING", new BalancingPool(routees), routees, tasks, slowMillis);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.benchmarks;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.ActorSystem;
+import io.github.codepr.jas.actors.ActorSystem.ExecutionMode;
+import io.github.codepr.jas.actors.ActorSystem.SystemMode;
+import io.github.codepr.jas.actors.ActorSystemImpl;
+import io.github.codepr.jas.actors.dispatcher.VirtualThreadDispatcher;
+import io.github.codepr.jas.actors.utils.messages.TrivialMessage;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code FORK_JOIN} and {@code VIRTUAL_THREADS} execution modes
+ * with a population of actors blocking inside {@code receive}, like
+ * {@code LongTaskActor} does. {@code VIRTUAL_THREADS} is skipped on JVMs
+ * without virtual threads, i.e. before Java 21.
+ * Run with {@code java -cp target/classes:target/test-classes
+ * io.github.codepr.jas.actors.benchmarks.ExecutionModeBenchmark [actors] [millis]}
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExecutionModeBenchmark {
+
+    private static CountDownLatch done;
+
+    private static long blockMillis;
+
+    /**
+     * Actor blocking the thread it's running on for {@code blockMillis}
+     */
+    public static class BlockingActor extends AbsActor<TrivialMessage> {
+        @Override
+        public void receive(TrivialMessage message) {
+            try {
+                Thread.sleep(blockMillis);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            done.countDown();
+        }
+    }
+
+    private static long run(ExecutionMode mode, int actors) throws RemoteException, InterruptedException {
+        ActorSystem system = new ActorSystemImpl(SystemMode.DEFAULT, mode);
+        ActorRef[] refs = new ActorRef[actors];
+        for (int i = 0; i < actors; i++)
+            refs[i] = system.actorOf(BlockingActor.class);
+        done = new CountDownLatch(actors);
+        long start = System.nanoTime();
+        for (ActorRef ref : refs)
+            ref.send(new TrivialMessage(), ref);
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        system.stop();
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int actors = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        blockMillis = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        System.out.println(" [*] " + actors + " actors blocking " + blockMillis + " ms each");
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            if (mode == ExecutionMode.VIRTUAL_THREADS && !VirtualThreadDispatcher.isSupported()) {
+                System.out.println(" [*] " + mode + ": skipped, virtual threads require Java 21");
+                continue;
+            }
+            // warm up
+            run(mode, actors / 10);
+            System.out.println(" [*] " + mode + ": " + run(mode, actors) + " ms");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.benchmarks;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.ActorRef;
+import io.github.codepr.jas.actors.ActorSystem;
+import io.github.codepr.jas.actors.ActorSystemImpl;
+import io.github.codepr.jas.actors.utils.messages.counter.CounterMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.Increment;
+
+import java.rmi.RemoteException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many producers, one consumer benchmark: a set of threads send
+ * {@code Increment} messages to a single aggregator actor, stressing the
+ * enqueue and scheduling path of {@code AbsActor}.
+ * Run with {@code java -cp target/classes:target/test-classes
+ * io.github.codepr.jas.actors.benchmarks.FanInBenchmark [producers] [messages] [batch]},
+ * with a batch greater than one messages are sent with {@code sendAll}.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class FanInBenchmark {
+
+    private static CountDownLatch done;
+
+    private static long expected;
+
+    /**
+     * Counter actor signaling the benchmark once all messages are received
+     */
+    public static class AggregatorActor extends AbsActor<CounterMessage> {
+
+        private long counter = 0;
+
+        @Override
+        public void receive(CounterMessage message) {
+            if (++counter == expected)
+                done.countDown();
+        }
+    }
+
+    private static long run(int producers, int messages, int batch) throws InterruptedException {
+        ActorSystem system = new ActorSystemImpl();
+        final ActorRef<CounterMessage> aggregator =
+            (ActorRef<CounterMessage>) system.actorOf(AggregatorActor.class);
+        final Increment increment = new Increment();
+        final List<CounterMessage> increments = Collections.nCopies(batch, increment);
+        expected = (long) producers * messages;
+        done = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                    try {
+                        if (batch > 1) {
+                            for (int i = 0; i < messages; i += batch)
+                                aggregator.sendAll(increments, aggregator);
+                        } else {
+                            for (int i = 0; i < messages; i++)
+                                aggregator.send(increment, aggregator);
+                        }
+                    } catch (RemoteException e) {
+                        e.printStackTrace();
+                    }
+                });
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads)
+            t.start();
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        system.stop();
+        return elapsed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 250_000;
+        int batch = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        // round messages to a multiple of the batch
+        messages = messages / batch * batch;
+        System.out.println(" [*] " + producers + " producers, " + messages + " messages each, batch " + batch);
+        // warm up
+        run(producers, messages / 10 / batch * batch, batch);
+        long elapsed = run(producers, messages, batch);
+        long total = (long) producers * messages;
+        System.out.println(" [*] " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms, "
+                           + (total * 1_000_000_000L / elapsed) + " msg/s");
+    }
+}
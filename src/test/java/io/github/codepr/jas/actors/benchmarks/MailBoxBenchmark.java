@@ -0,0 +1,88 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.benchmarks;
+
+import io.github.codepr.jas.actors.mailbox.Envelope;
+import io.github.codepr.jas.actors.mailbox.MailBox;
+import io.github.codepr.jas.actors.mailbox.MailBoxImpl;
+import io.github.codepr.jas.actors.mailbox.MpscMailBox;
+import io.github.codepr.jas.actors.utils.messages.counter.Increment;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fan-in benchmark of the {@code MailBox} implementations, many producers
+ * enqueue messages while a single consumer drains them, as happens for an
+ * aggregator actor like {@code CounterActor}.
+ * Run with {@code java -cp target/classes:target/test-classes
+ * io.github.codepr.jas.actors.benchmarks.MailBoxBenchmark [producers] [messages]}
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class MailBoxBenchmark {
+
+    private static long run(Supplier<MailBox<Increment>> factory, int producers, int messages)
+        throws InterruptedException {
+        final MailBox<Increment> mailBox = factory.get();
+        final Increment increment = new Increment();
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                    for (int i = 0; i < messages; i++)
+                        mailBox.enqueue(new Envelope<>(increment, null));
+                });
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads)
+            t.start();
+        for (long i = 0, total = (long) producers * messages; i < total; i++)
+            mailBox.remove();
+        long elapsed = System.nanoTime() - start;
+        for (Thread t : threads)
+            t.join();
+        return elapsed;
+    }
+
+    private static void report(String name, Supplier<MailBox<Increment>> factory,
+                               int producers, int messages) throws InterruptedException {
+        // warm up
+        run(factory, producers, messages / 10);
+        long elapsed = run(factory, producers, messages);
+        long total = (long) producers * messages;
+        System.out.println(" [*] " + name + ": " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms, "
+                           + (total * 1_000_000_000L / elapsed) + " msg/s");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        System.out.println(" [*] " + producers + " producers, " + messages + " messages each");
+        report("MailBoxImpl", MailBoxImpl::new, producers, messages);
+        report("MpscMailBox", MpscMailBox::new, producers, messages);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.benchmarks;
+
+import io.github.codepr.jas.actors.ActorSystem;
+import io.github.codepr.jas.actors.ActorSystem.SystemMode;
+import io.github.codepr.jas.actors.ActorSystemImpl;
+import io.github.codepr.jas.actors.Props;
+import io.github.codepr.jas.actors.TestActorRef;
+import io.github.codepr.jas.actors.dispatcher.PinnedDispatcher;
+import io.github.codepr.jas.actors.utils.actors.ping.pong.PingPongActor;
+import io.github.codepr.jas.actors.utils.messages.ping.pong.PingMessage;
+import io.github.codepr.jas.actors.utils.messages.ping.pong.PingPongMessage;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trip latency of a ping asked to a {@code PingPongActor},
+ * one at a time, with the actor on the shared fork-join dispatcher and on its
+ * own {@code PinnedDispatcher}, pausing between pings so that the actor goes
+ * idle every time.
+ * Run with {@code java -cp target/classes:target/test-classes
+ * io.github.codepr.jas.actors.benchmarks.PingPongLatencyBenchmark [pings] [pauseMicros]}
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class PingPongLatencyBenchmark {
+
+    private static long[] run(Props props, int pings, long pauseMicros) throws Exception {
+        ActorSystem system = new ActorSystemImpl(SystemMode.DEFAULT);
+        TestActorRef<PingPongMessage> ref = new TestActorRef(system.actorOf(props));
+        long[] latencies = new long[pings];
+        for (int i = 0; i < pings; i++) {
+            long start = System.nanoTime();
+            ref.ask(new PingMessage(), ref, 1, TimeUnit.SECONDS).get();
+            latencies[i] = System.nanoTime() - start;
+            long pause = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(pauseMicros);
+            while (System.nanoTime() - pause < 0);
+        }
+        system.stop();
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static String percentiles(long[] latencies) {
+        return String.format("p50 %.1f us, p99 %.1f us, p99.9 %.1f us",
+                             latencies[latencies.length / 2] / 1000.0,
+                             latencies[(int) (latencies.length * 0.99)] / 1000.0,
+                             latencies[(int) (latencies.length * 0.999)] / 1000.0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int pings = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long pauseMicros = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        Props shared = Props.create(PingPongActor.class);
+        Props pinned = shared.withDispatcher(PinnedDispatcher::new);
+        System.out.println(" [*] " + pings + " pings, " + pauseMicros + " us apart");
+        // warm up
+        run(shared, pings / 10, pauseMicros);
+        run(pinned, pings / 10, pauseMicros);
+        System.out.println(" [*] FORK_JOIN: " + percentiles(run(shared, pings, pauseMicros)));
+        System.out.println(" [*] PINNED: " + percentiles(run(pinned, pings, pauseMicros)));
+    }
+}
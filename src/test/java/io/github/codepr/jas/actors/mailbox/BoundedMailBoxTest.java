@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.exceptions.MailBoxOverflowException;
+import io.github.codepr.jas.actors.utils.messages.StoreMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases about {@link BoundedMailBox} type.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class BoundedMailBoxTest {
+
+    private final List<Envelope<StoreMessage>> deadLetters = new ArrayList<>();
+
+    private Envelope<StoreMessage> envelope(String payload) {
+        return new Envelope<>(new StoreMessage(payload), null);
+    }
+
+    private BoundedMailBox<StoreMessage> fill(OverflowStrategy strategy) {
+        BoundedMailBox<StoreMessage> mailBox =
+            new BoundedMailBox<>(2, strategy, 50, TimeUnit.MILLISECONDS, deadLetters::add);
+        mailBox.enqueue(envelope("1"));
+        mailBox.enqueue(envelope("2"));
+        return mailBox;
+    }
+
+    @Test
+    public void shouldDrainAtMostMaxMessages() {
+        BoundedMailBox<StoreMessage> mailBox = fill(OverflowStrategy.FAIL);
+        List<Envelope<StoreMessage>> drained = new ArrayList<>();
+        Assert.assertEquals("Only max messages should be drained", 1, mailBox.drainTo(drained, 1));
+        Assert.assertEquals("The head message should be drained", "1", drained.get(0).getMessage().getPayload());
+        Assert.assertEquals("The remaining messages should be drained", 1, mailBox.drainTo(drained, 10));
+        Assert.assertTrue("The mailbox should be empty", mailBox.isEmpty());
+    }
+
+    @Test
+    public void shouldDropNewestMessageWhenFull() {
+        BoundedMailBox<StoreMessage> mailBox = fill(OverflowStrategy.DROP_NEWEST);
+        mailBox.enqueue(envelope("3"));
+        Assert.assertEquals("The head message should be kept", "1", mailBox.poll().getMessage().getPayload());
+        Assert.assertEquals("The second message should be kept", "2", mailBox.poll().getMessage().getPayload());
+        Assert.assertTrue("The incoming message should be dropped", mailBox.isEmpty());
+        Assert.assertEquals("The dropped message should be a dead letter", "3", deadLetters.get(0).getMessage().getPayload());
+    }
+
+    @Test
+    public void shouldCountDeadLettersByDefault() {
+        BoundedMailBox<StoreMessage> mailBox = new BoundedMailBox<>(1, OverflowStrategy.DROP_NEWEST);
+        mailBox.enqueue(envelope("1"));
+        mailBox.enqueue(envelope("2"));
+        mailBox.enqueue(envelope("3"));
+        Assert.assertEquals("The dropped messages should be counted", 2, mailBox.getDeadLetterCount());
+        Assert.assertEquals("The head message should be kept", "1", mailBox.poll().getMessage().getPayload());
+    }
+
+    @Test
+    public void shouldDropOldestMessageWhenFull() {
+        BoundedMailBox<StoreMessage> mailBox = fill(OverflowStrategy.DROP_OLDEST);
+        mailBox.enqueue(envelope("3"));
+        Assert.assertEquals("The second message should be kept", "2", mailBox.poll().getMessage().getPayload());
+        Assert.assertEquals("The incoming message should be kept", "3", mailBox.poll().getMessage().getPayload());
+        Assert.assertEquals("The dropped message should be a dead letter", "1", deadLetters.get(0).getMessage().getPayload());
+    }
+
+    @Test
+    public void shouldFailWhenFull() {
+        BoundedMailBox<StoreMessage> mailBox = fill(OverflowStrategy.FAIL);
+        try {
+            mailBox.enqueue(envelope("3"));
+            Assert.fail("Enqueue on a full mailbox should fail");
+        } catch (MailBoxOverflowException e) {
+            Assert.assertEquals("The rejected message should be a dead letter", "3", deadLetters.get(0).getMessage().getPayload());
+        }
+    }
+
+    @Test
+    public void shouldBlockUntilTimeoutWhenFull() {
+        BoundedMailBox<StoreMessage> mailBox = fill(OverflowStrategy.BLOCK);
+        long start = System.nanoTime();
+        mailBox.enqueue(envelope("3"));
+        Assert.assertTrue("The sender should be blocked for the timeout",
+                          System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertEquals("The timed out message should be a dead letter", "3", deadLetters.get(0).getMessage().getPayload());
+    }
+
+    @Test
+    public void shouldUnblockSenderWhenConsumed() throws InterruptedException {
+        final BoundedMailBox<StoreMessage> mailBox =
+            new BoundedMailBox<>(1, OverflowStrategy.BLOCK);
+        mailBox.enqueue(envelope("1"));
+        Thread sender = new Thread(() -> mailBox.enqueue(envelope("2")));
+        sender.start();
+        Assert.assertEquals("The head message should be removed", "1", mailBox.remove().getMessage().getPayload());
+        sender.join(1000);
+        Assert.assertEquals("The blocked message should be enqueued", "2", mailBox.remove().getMessage().getPayload());
+    }
+}
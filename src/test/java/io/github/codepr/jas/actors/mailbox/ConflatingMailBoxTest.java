@@ -0,0 +1,102 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.utils.messages.StoreMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases about {@link ConflatingMailBox} type.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class ConflatingMailBoxTest {
+
+    /**
+     * Message conflated by the text before {@code =} in its payload
+     */
+    public static class Update extends StoreMessage implements Conflatable {
+
+        public Update(String payload) {
+            super(payload);
+        }
+
+        @Override
+        public Object getConflationKey() {
+            return getPayload().split("=")[0];
+        }
+    }
+
+    private String drain(MailBox<StoreMessage> mailBox) {
+        List<Envelope<StoreMessage>> drained = new ArrayList<>();
+        mailBox.drainTo(drained, Integer.MAX_VALUE);
+        StringBuilder order = new StringBuilder();
+        for (Envelope<StoreMessage> envelope : drained)
+            order.append(envelope.getMessage().getPayload()).append(' ');
+        return order.toString();
+    }
+
+    @Test
+    public void shouldKeepTheLatestMessagePerKeyInPlace() {
+        ConflatingMailBox<StoreMessage> mailBox = new ConflatingMailBox<>();
+        mailBox.enqueue(new Envelope<>(new Update("a=1"), null));
+        mailBox.enqueue(new Envelope<>(new StoreMessage("plain"), null));
+        mailBox.enqueue(new Envelope<>(new Update("b=1"), null));
+        mailBox.enqueue(new Envelope<>(new Update("a=2"), null));
+        mailBox.enqueue(new Envelope<>(new StoreMessage("plain"), null));
+        mailBox.enqueue(new Envelope<>(new Update("a=3"), null));
+        Assert.assertEquals("Conflated messages should not grow the mailbox", 4, mailBox.size());
+        Assert.assertEquals("The latest value should take the place of the first one",
+                            "a=3 plain b=1 plain ", drain(mailBox));
+        Assert.assertEquals("Replaced messages should be counted", 2, mailBox.getConflated());
+        mailBox.enqueue(new Envelope<>(new Update("a=4"), null));
+        Assert.assertEquals("A key should be queued again once removed", "a=4 ", drain(mailBox));
+    }
+
+    @Test
+    public void shouldBoundTheSizeToTheDistinctKeys() throws InterruptedException {
+        final ConflatingMailBox<StoreMessage> mailBox = new ConflatingMailBox<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread t = new Thread(() -> {
+                    for (int i = 0; i < 10000; i++)
+                        mailBox.enqueue(new Envelope<>(new Update((i % 10) + "=" + i), null));
+                });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads)
+            t.join();
+        Assert.assertEquals("Only the latest message of every key should be kept", 10, mailBox.size());
+        Assert.assertEquals("Every other message should be conflated", 39990, mailBox.getConflated());
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.utils.messages.StoreMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases about {@link MpscMailBox} type.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 1.0
+ */
+public class MpscMailBoxTest {
+
+    @Test
+    public void shouldBeEmptyWhenCreated() {
+        MailBox<StoreMessage> mailBox = new MpscMailBox<>();
+        Assert.assertTrue("A new mailbox should be empty", mailBox.isEmpty());
+        Assert.assertNull("Polling an empty mailbox should return null", mailBox.poll());
+    }
+
+    @Test
+    public void shouldUnlinkRemovedEnvelopes() {
+        MailBox<StoreMessage> mailBox = new MpscMailBox<>();
+        for (int round = 0; round < 3; round++) {
+            mailBox.enqueue(new Envelope<>(new StoreMessage("first"), null));
+            mailBox.enqueue(new Envelope<>(new StoreMessage("second"), null));
+            Envelope<StoreMessage> first = mailBox.poll();
+            Assert.assertNull("A removed envelope should be unlinked", first.next);
+            Envelope<StoreMessage> second = mailBox.poll();
+            Assert.assertEquals("Messages should be removed in FIFO order",
+                                "second", second.getMessage().getPayload());
+            Assert.assertNull("The last removed envelope should be unlinked", second.next);
+            Assert.assertTrue("The mailbox should be empty", mailBox.isEmpty());
+            Assert.assertNull("Polling an empty mailbox should return null", mailBox.poll());
+        }
+    }
+
+    @Test
+    public void shouldCountTheMessagesInside() {
+        MailBox<StoreMessage> mailBox = new MpscMailBox<>();
+        mailBox.enqueue(new Envelope<>(new StoreMessage("first"), null));
+        mailBox.enqueueAll(Arrays.asList(new Envelope<>(new StoreMessage("second"), null),
+                                         new Envelope<>(new StoreMessage("third"), null)));
+        Assert.assertEquals("The mailbox should count every message", 3, mailBox.size());
+        mailBox.poll();
+        Assert.assertEquals("The mailbox should not count removed messages", 2, mailBox.size());
+        mailBox.poll();
+        mailBox.poll();
+        Assert.assertEquals("An empty mailbox should count no messages", 0, mailBox.size());
+        Assert.assertNull("Polling an empty mailbox should return null", mailBox.poll());
+        Assert.assertEquals("Polling an empty mailbox should not change its size", 0, mailBox.size());
+    }
+
+    @Test
+    public void shouldPreserveFifoOrder() {
+        MailBox<StoreMessage> mailBox = new MpscMailBox<>();
+        for (int i = 0; i < 10; i++)
+            mailBox.enqueue(new Envelope<>(new StoreMessage(String.valueOf(i)), null));
+        for (int i = 0; i < 10; i++)
+            Assert.assertEquals("Messages should be removed in FIFO order",
+                                String.valueOf(i), mailBox.remove().getMessage().getPayload());
+        Assert.assertTrue("The mailbox should be empty", mailBox.isEmpty());
+    }
+
+    @Test
+    public void shouldNotLoseMessagesFromConcurrentProducers() throws InterruptedException {
+        final MailBox<StoreMessage> mailBox = new MpscMailBox<>();
+        final int producers = 4;
+        final int messages = 10000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final String producer = String.valueOf(p);
+            Thread t = new Thread(() -> {
+                    for (int i = 0; i < messages; i++)
+                        mailBox.enqueue(new Envelope<>(new StoreMessage(producer + ":" + i), null));
+                });
+            threads.add(t);
+            t.start();
+        }
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        for (int i = 0; i < producers * messages; i++) {
+            String[] payload = mailBox.remove().getMessage().getPayload().split(":");
+            int producer = Integer.parseInt(payload[0]);
+            int seq = Integer.parseInt(payload[1]);
+            Assert.assertEquals("Messages of the same producer should keep their order",
+                                last[producer] + 1, seq);
+            last[producer] = seq;
+        }
+        for (Thread t : threads)
+            t.join();
+        Assert.assertTrue("The mailbox should be empty", mailBox.isEmpty());
+    }
+
+    @Test
+    public void shouldEnqueueABatchWithoutInterleaving() throws InterruptedException {
+        final MailBox<StoreMessage> mailBox = new MpscMailBox<>();
+        final int producers = 4;
+        final int batches = 1000;
+        final int batchSize = 10;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final String producer = String.valueOf(p);
+            Thread t = new Thread(() -> {
+                    for (int b = 0; b < batches; b++) {
+                        List<Envelope<StoreMessage>> batch = new ArrayList<>();
+                        for (int i = 0; i < batchSize; i++)
+                            batch.add(new Envelope<>(new StoreMessage(producer + ":" + i), null));
+                        mailBox.enqueueAll(batch);
+                    }
+                });
+            threads.add(t);
+            t.start();
+        }
+        for (int b = 0; b < producers * batches; b++) {
+            String producer = mailBox.remove().getMessage().getPayload().split(":")[0];
+            for (int i = 1; i < batchSize; i++)
+                Assert.assertEquals("Messages of a batch should be contiguous and ordered",
+                                    producer + ":" + i, mailBox.remove().getMessage().getPayload());
+        }
+        for (Thread t : threads)
+            t.join();
+        Assert.assertTrue("The mailbox should be empty", mailBox.isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.mailbox;
+
+import io.github.codepr.jas.actors.utils.messages.StoreMessage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases about {@link PriorityMailBox} type.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class PriorityMailBoxTest {
+
+    private Envelope<StoreMessage> envelope(String payload) {
+        return new Envelope<>(new StoreMessage(payload), null);
+    }
+
+    /**
+     * Urgent payloads start with {@code !}
+     */
+    private static int priority(StoreMessage message) {
+        return message.getPayload().startsWith("!") ? 0 : 1;
+    }
+
+    @Test
+    public void shouldRemoveUrgentMessagesFirstKeepingFifoOrder() {
+        MailBox<StoreMessage> mailBox = new PriorityMailBox<>(PriorityMailBoxTest::priority);
+        for (String payload : new String[] { "1", "2", "!1", "3", "!2", "4", "!3" })
+            mailBox.enqueue(envelope(payload));
+        List<Envelope<StoreMessage>> drained = new ArrayList<>();
+        Assert.assertEquals("Every message should be drained", 7, mailBox.drainTo(drained, 10));
+        StringBuilder order = new StringBuilder();
+        for (Envelope<StoreMessage> envelope : drained)
+            order.append(envelope.getMessage().getPayload()).append(' ');
+        Assert.assertEquals("Urgent messages should come first, both in FIFO order",
+                            "!1 !2 !3 1 2 3 4 ", order.toString());
+        Assert.assertTrue("The mailbox should be empty", mailBox.isEmpty());
+    }
+
+    @Test
+    public void shouldOrderMessagesByAComparator() {
+        MailBox<StoreMessage> mailBox =
+            new PriorityMailBox<>(Comparator.comparing(StoreMessage::getPayload, Comparator.reverseOrder()));
+        for (String payload : new String[] { "b", "a", "c", "a" })
+            mailBox.enqueue(envelope(payload));
+        StringBuilder order = new StringBuilder();
+        Envelope<StoreMessage> envelope;
+        while ((envelope = mailBox.poll()) != null)
+            order.append(envelope.getMessage().getPayload());
+        Assert.assertEquals("Messages should be removed in the order of the comparator", "cbaa", order.toString());
+    }
+
+    @Test
+    public void shouldNotLoseMessagesFromConcurrentProducers() throws InterruptedException {
+        final MailBox<StoreMessage> mailBox = new PriorityMailBox<>(PriorityMailBoxTest::priority);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            final String prefix = p % 2 == 0 ? "!" : "";
+            Thread t = new Thread(() -> {
+                    for (int i = 0; i < 10000; i++)
+                        mailBox.enqueue(envelope(prefix + i));
+                });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads)
+            t.join();
+        Assert.assertEquals("Every message should be stored", 40000, mailBox.size());
+        for (int i = 0; i < 20000; i++)
+            Assert.assertTrue("Urgent messages should come first",
+                              mailBox.remove().getMessage().getPayload().startsWith("!"));
+        Assert.assertEquals("The remaining messages should be removed", 20000, mailBox.drainTo(new ArrayList<>(), 40000));
+    }
+}
@@ -0,0 +1,421 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.routers;
+
+import io.github.codepr.jas.actors.AbsActor;
+import io.github.codepr.jas.actors.AbsActorSystem;
+import io.github.codepr.jas.actors.ActorSystem;
+import io.github.codepr.jas.actors.ActorSystemImpl;
+import io.github.codepr.jas.actors.Props;
+import io.github.codepr.jas.actors.TestActorRef;
+import io.github.codepr.jas.actors.utils.ActorSystemFactory;
+import io.github.codepr.jas.actors.utils.actors.counter.CounterActor;
+import io.github.codepr.jas.actors.utils.messages.StoreMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.CounterMessage;
+import io.github.codepr.jas.actors.utils.messages.counter.Decrement;
+import io.github.codepr.jas.actors.utils.messages.counter.Get;
+import io.github.codepr.jas.actors.utils.messages.counter.Increment;
+import io.github.codepr.jas.actors.utils.messages.counter.Result;
+
+import java.rmi.RemoteException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases about {@link RouterActor} type.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class RouterTest {
+
+    private ActorSystem system;
+
+    /**
+     * Initializes the {@code system} with a concrete implementation before each test.
+     */
+    @Before
+    public void init() {
+        system = ActorSystemFactory.buildActorSystem();
+    }
+
+    @Test
+    public void shouldRouteMessagesInTurn() throws RemoteException {
+        TestActorRef<CounterMessage> router =
+            new TestActorRef(system.actorOf(Props.create(CounterActor.class).withRouter(Pool.roundRobin(4))));
+        RouterActor<CounterMessage> actor = (RouterActor<CounterMessage>) router.getUnderlyingActor(system);
+        List<AbsActor<CounterMessage>> routees = actor.getRoutees();
+        for (int i = 0; i < 400; i++)
+            router.send(new Increment(), router);
+        system.stop(router);
+        for (AbsActor<CounterMessage> routee : routees)
+            Assert.assertEquals("Every routee should receive the same share", 100, ((CounterActor) routee).getCounter());
+    }
+
+    @Test
+    public void shouldRouteEveryMessageWithRandomAndSmallestMailBoxPools() throws RemoteException {
+        for (Pool pool : new Pool[] { Pool.random(4), Pool.smallestMailBox(4) }) {
+            TestActorRef<CounterMessage> router =
+                new TestActorRef(system.actorOf(Props.create(CounterActor.class).withRouter(pool)));
+            List<AbsActor<CounterMessage>> routees =
+                ((RouterActor<CounterMessage>) router.getUnderlyingActor(system)).getRoutees();
+            for (int i = 0; i < 1000; i++)
+                router.send(new Increment(), router);
+            system.stop(router);
+            int total = 0;
+            for (AbsActor<CounterMessage> routee : routees)
+                total += ((CounterActor) routee).getCounter();
+            Assert.assertEquals("Every message should be routed exactly once", 1000, total);
+        }
+    }
+
+    @Test
+    public void shouldRouteEqualKeysToTheSameRoutee() throws RemoteException {
+        Pool pool = Pool.consistentHashing(4, m -> ((StoreMessage) m).getPayload());
+        TestActorRef<StoreMessage> router =
+            new TestActorRef(system.actorOf(Props.create(RecordingActor.class).withRouter(pool)));
+        List<AbsActor<StoreMessage>> routees =
+            ((RouterActor<StoreMessage>) router.getUnderlyingActor(system)).getRoutees();
+        for (int i = 0; i < 10; i++)
+            for (char key = 'a'; key <= 'z'; key++)
+                router.send(new StoreMessage(String.valueOf(key)), router);
+        system.stop(router);
+        Set<String> seen = new HashSet<>();
+        int used = 0;
+        for (AbsActor<StoreMessage> routee : routees) {
+            Set<String> keys = ((RecordingActor) routee).getKeys();
+            for (String key : keys)
+                Assert.assertTrue("A key should be routed to a single routee", seen.add(key));
+            if (!keys.isEmpty())
+                used++;
+        }
+        Assert.assertEquals("Every key should be routed", 26, seen.size());
+        Assert.assertTrue("Keys should be spread among routees", used > 1);
+    }
+
+    @Test
+    public void shouldReplyToTheOriginalSender() throws Exception {
+        TestActorRef<CounterMessage> router =
+            new TestActorRef(system.actorOf(Props.create(CounterActor.class).withRouter(Pool.roundRobin(2))));
+        CounterMessage reply = router.ask(new Get(), router, 1, TimeUnit.SECONDS).get();
+        Assert.assertEquals("The routee should reply to the asking sender", 0, ((Result) reply).getResult());
+    }
+
+    @Test
+    public void shouldStopTheRouteesWithTheRouter() throws RemoteException {
+        TestActorRef<CounterMessage> router =
+            new TestActorRef(system.actorOf(Props.create(CounterActor.class).withRouter(Pool.roundRobin(3))));
+        List<AbsActor<CounterMessage>> routees =
+            ((RouterActor<CounterMessage>) router.getUnderlyingActor(system)).getRoutees();
+        system.stop(router);
+        for (AbsActor<CounterMessage> routee : routees)
+            Assert.assertFalse("Routees should be stopped along with the router",
+                               ((AbsActorSystem) system).contains(routee.getSelf()));
+    }
+
+    @Test
+    public void shouldPruneAStoppedRoutee() throws Exception {
+        TestActorRef<CounterMessage> router =
+            new TestActorRef(system.actorOf(Props.create(CounterActor.class).withRouter(Pool.roundRobin(3))));
+        RouterActor<CounterMessage> actor = (RouterActor<CounterMessage>) router.getUnderlyingActor(system);
+        AbsActor<CounterMessage> stopped = actor.getRoutees().get(1);
+        system.stop(stopped.getSelf());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (actor.getRoutees().size() > 2 && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        Assert.assertEquals("The stopped routee should be removed", 2, actor.getRoutees().size());
+        Assert.assertFalse("The stopped routee should be removed", actor.getRoutees().contains(stopped));
+        for (int i = 0; i < 6; i++)
+            router.send(new Increment(), router);
+        system.stop(router);
+        for (AbsActor<CounterMessage> routee : actor.getRoutees())
+            Assert.assertEquals("Messages should be routed to the remaining routees",
+                                3, ((CounterActor) routee).getCounter());
+    }
+
+    @Test
+    public void shouldNotDelayMessagesBehindASlowOneWithABalancingPool() throws Exception {
+        ActorSystem balancing = new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, 2, 1);
+        try {
+            TestActorRef<StoreMessage> router =
+                new TestActorRef(balancing.actorOf(Props.create(RecordingActor.class).withRouter(new BalancingPool(2))));
+            List<AbsActor<StoreMessage>> routees =
+                ((RouterActor<StoreMessage>) router.getUnderlyingActor(balancing)).getRoutees();
+            router.send(new StoreMessage("slow"), router);
+            Thread.sleep(100);
+            for (int i = 0; i < 20; i++)
+                router.send(new StoreMessage(String.valueOf(i)), router);
+            Thread.sleep(500);
+            int received = 0;
+            for (AbsActor<StoreMessage> routee : routees)
+                received += ((RecordingActor) routee).getReceived();
+            Assert.assertEquals("Fast messages should be taken by the free routee", 20, received);
+        } finally {
+            balancing.stop();
+        }
+    }
+
+    @Test
+    public void shouldLeaveTheSharedMailBoxToTheRemainingRoutees() throws Exception {
+        ActorSystem balancing = new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, 2, 5);
+        try {
+            CountDownLatch gate = new CountDownLatch(1);
+            AtomicInteger processed = new AtomicInteger();
+            TestActorRef<CounterMessage> router =
+                new TestActorRef(balancing.actorOf(Props.create(() -> new SharedCounterActor(gate, processed))
+                                                   .withRouter(new BalancingPool(2))));
+            List<AbsActor<CounterMessage>> routees =
+                ((RouterActor<CounterMessage>) router.getUnderlyingActor(balancing)).getRoutees();
+            // both routees wait at the gate, the shared mailbox is empty
+            router.send(new Decrement(), router);
+            router.send(new Decrement(), router);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            RouterActor<CounterMessage> actor = (RouterActor<CounterMessage>) router.getUnderlyingActor(balancing);
+            while (actor.getMailBoxSize() > 0 && System.nanoTime() < deadline)
+                Thread.sleep(5);
+            for (int i = 0; i < 1000; i++)
+                router.send(new Increment(), router);
+            SharedCounterActor stopped = (SharedCounterActor) routees.get(0);
+            Thread stopper = new Thread(() -> balancing.stop(stopped.getSelf()));
+            stopper.start();
+            Thread.sleep(50);
+            gate.countDown();
+            stopper.join();
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (processed.get() < 1002 && System.nanoTime() < deadline)
+                Thread.sleep(5);
+            Assert.assertEquals("Every message should be processed", 1002, processed.get());
+            Assert.assertEquals("The stopped routee should leave the shared mailbox to the other one",
+                                1, stopped.getReceived());
+        } finally {
+            balancing.stop();
+        }
+    }
+
+    @Test
+    public void shouldReplyWithTheFirstReplyOfAllTheRoutees() throws Exception {
+        ActorSystem scatter = new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, 3, 1);
+        try {
+            TestActorRef<StoreMessage> router = new TestActorRef(scatter.actorOf(Props.create(EchoActor.class)
+                                                                                 .withRouter(Pool.scatterGatherFirstCompleted(3, 1, TimeUnit.SECONDS))));
+            List<AbsActor<StoreMessage>> routees =
+                ((RouterActor<StoreMessage>) router.getUnderlyingActor(scatter)).getRoutees();
+            StoreMessage reply = router.ask(new StoreMessage("0"), router, 1, TimeUnit.SECONDS).get();
+            Assert.assertEquals("The sender should receive a reply", "echo", reply.getPayload());
+            Thread.sleep(200);
+            for (AbsActor<StoreMessage> routee : routees)
+                Assert.assertEquals("Every routee should receive the request", 1, ((EchoActor) routee).getReceived());
+        } finally {
+            scatter.stop();
+        }
+    }
+
+    @Test
+    public void shouldTryAnotherRouteeOnlyWhenTheFirstIsSlow() throws Exception {
+        ActorSystem chopping = new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, 3, 1);
+        try {
+            TestActorRef<StoreMessage> router = new TestActorRef(chopping.actorOf(Props.create(EchoActor.class)
+                                                                                  .withRouter(Pool.tailChopping(3, 2000, 100, TimeUnit.MILLISECONDS))));
+            List<AbsActor<StoreMessage>> routees =
+                ((RouterActor<StoreMessage>) router.getUnderlyingActor(chopping)).getRoutees();
+            router.ask(new StoreMessage("0"), router, 1, TimeUnit.SECONDS).get();
+            Thread.sleep(300);
+            Assert.assertEquals("A fast routee should be the only one receiving the request", 1, received(routees));
+            long start = System.nanoTime();
+            StoreMessage reply = router.ask(new StoreMessage("1000"), router, 2, TimeUnit.SECONDS).get();
+            Assert.assertEquals("The sender should receive a reply", "echo", reply.getPayload());
+            Assert.assertTrue("Slow routees should be chopped",
+                              received(routees) == 4 && System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1000));
+        } finally {
+            chopping.stop();
+        }
+    }
+
+    @Test
+    public void shouldResizeThePoolAccordingToThePressure() throws Exception {
+        ActorSystem resizing = new ActorSystemImpl(ActorSystem.SystemMode.DEFAULT, 4, 1);
+        try {
+            Pool pool = Pool.roundRobin(1).withResizer(new Resizer(1, 4, 5, 10, TimeUnit.MILLISECONDS));
+            TestActorRef<StoreMessage> router =
+                new TestActorRef(resizing.actorOf(Props.create(SleepingActor.class).withRouter(pool)));
+            RouterActor<StoreMessage> actor = (RouterActor<StoreMessage>) router.getUnderlyingActor(resizing);
+            SleepingActor.processed.set(0);
+            int maxSize = 0;
+            for (int i = 0; i < 200; i++) {
+                router.send(new StoreMessage(String.valueOf(i)), router);
+                maxSize = Math.max(maxSize, actor.getRoutees().size());
+                if (i % 20 == 0)
+                    Thread.sleep(15);
+            }
+            Assert.assertTrue("The pool should grow within its upper bound", maxSize > 1 && maxSize <= 4);
+            for (int i = 0; i < 500 && SleepingActor.processed.get() < 200; i++)
+                Thread.sleep(10);
+            int sent = 200;
+            for (int i = 0; i < 20 && actor.getRoutees().size() > 1; i++, sent++) {
+                Thread.sleep(50);
+                router.send(new StoreMessage(String.valueOf(i)), router);
+            }
+            Assert.assertEquals("The pool should shrink back to its lower bound", 1, actor.getRoutees().size());
+            resizing.stop(router);
+            // removed routees are stopped asynchronously
+            for (int i = 0; i < 100 && SleepingActor.processed.get() < sent; i++)
+                Thread.sleep(10);
+            Assert.assertEquals("Removed routees should process their pending messages",
+                                sent, SleepingActor.processed.get());
+        } finally {
+            resizing.stop();
+        }
+    }
+
+    private static int received(List<AbsActor<StoreMessage>> routees) {
+        int received = 0;
+        for (AbsActor<StoreMessage> routee : routees)
+            received += ((EchoActor) routee).getReceived();
+        return received;
+    }
+
+    /**
+     * Actor replying to every message after sleeping the milliseconds in
+     * its payload
+     */
+    public static class EchoActor extends AbsActor<StoreMessage> {
+
+        private final AtomicInteger received = new AtomicInteger();
+
+        @Override
+        public void receive(StoreMessage message) {
+            received.incrementAndGet();
+            try {
+                Thread.sleep(Long.parseLong(message.getPayload()));
+                self.send(new StoreMessage("echo"), sender);
+            } catch (InterruptedException | RemoteException e) {
+                e.printStackTrace();
+            }
+        }
+
+        public int getReceived() {
+            return received.get();
+        }
+    }
+
+    /**
+     * Actor taking a millisecond to process every message, counting the
+     * messages processed by all of its instances
+     */
+    public static class SleepingActor extends AbsActor<StoreMessage> {
+
+        private static final AtomicInteger processed = new AtomicInteger();
+
+        @Override
+        public void receive(StoreMessage message) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            processed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Actor recording the payloads received, a {@code slow} payload takes
+     * a second to be processed
+     */
+    public static class RecordingActor extends AbsActor<StoreMessage> {
+
+        private final Set<String> keys = new HashSet<>();
+        private volatile int received = 0;
+
+        @Override
+        public void receive(StoreMessage message) {
+            if ("slow".equals(message.getPayload())) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+            keys.add(message.getPayload());
+            received++;
+        }
+
+        public int getReceived() {
+            return received;
+        }
+
+        public Set<String> getKeys() {
+            return keys;
+        }
+    }
+
+    /**
+     * Actor counting its messages on a counter shared with its siblings,
+     * waiting at a gate on {@code Decrement}
+     */
+    public static class SharedCounterActor extends AbsActor<CounterMessage> {
+
+        private final CountDownLatch gate;
+        private final AtomicInteger processed;
+        private volatile int received = 0;
+
+        public SharedCounterActor(CountDownLatch gate, AtomicInteger processed) {
+            this.gate = gate;
+            this.processed = processed;
+        }
+
+        @Override
+        public void receive(CounterMessage message) {
+            if (message instanceof Decrement) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+            received++;
+            processed.incrementAndGet();
+        }
+
+        public int getReceived() {
+            return received;
+        }
+    }
+
+    /**
+     * Stops the {@code system}
+     */
+    @After
+    public void tearDown() throws RemoteException { system.stop(); }
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ * <p/>
+ * Copyright (c) 2016 Andrea Giacomo Baldan
+ * <p/>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p/>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p/>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * <p/>
+ */
+package io.github.codepr.jas.actors.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases about {@link HashedWheelScheduler} type.
+ *
+ * @author Andrea Giacomo Baldan
+ * @version 1.0
+ * @since 2.0
+ */
+public class HashedWheelSchedulerTest {
+
+    private Scheduler scheduler;
+
+    @Before
+    public void init() {
+        scheduler = new HashedWheelScheduler(5, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @Test
+    public void shouldNotRunATaskBeforeItsDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        long[] elapsed = new long[1];
+        // longer than a whole turn of the wheel
+        scheduler.scheduleOnce(100, TimeUnit.MILLISECONDS, () -> {
+                elapsed[0] = System.nanoTime() - start;
+                latch.countDown();
+            });
+        Assert.assertTrue("The task should run", latch.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue("The task should not run before its delay",
+                          elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void shouldNotRunACancelledTask() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Cancellable timer = scheduler.scheduleOnce(50, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+        Assert.assertTrue("A pending task should be cancelled", timer.cancel());
+        Assert.assertFalse("A task should be cancelled only once", timer.cancel());
+        Thread.sleep(150);
+        Assert.assertEquals("A cancelled task should not run", 0, runs.get());
+        Assert.assertTrue("The task should be cancelled", timer.isCancelled());
+    }
+
+    @Test
+    public void shouldRunAPeriodicTaskUntilCancelled() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Cancellable timer = scheduler.scheduleAtFixedRate(0, 20, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+        Thread.sleep(210);
+        timer.cancel();
+        int cancelledAt = runs.get();
+        Assert.assertTrue("The task should run periodically", cancelledAt >= 5);
+        Thread.sleep(100);
+        Assert.assertEquals("The task should stop once cancelled", cancelledAt, runs.get());
+    }
+
+    @Test
+    public void shouldRunManyTimers() throws InterruptedException {
+        int timers = 100000;
+        CountDownLatch latch = new CountDownLatch(timers / 2);
+        for (int i = 0; i < timers; i++) {
+            Cancellable timer = scheduler.scheduleOnce(i % 200, TimeUnit.MILLISECONDS, latch::countDown);
+            if (i % 2 == 1)
+                timer.cancel();
+        }
+        Assert.assertTrue("Every timer not cancelled should run", latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+}
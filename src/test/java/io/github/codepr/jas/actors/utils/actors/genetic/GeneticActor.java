@@ -80,6 +80,17 @@ public class GeneticActor extends AbsActor<GeneticMessage> {
      */
     private byte[] solution = new byte[32];
 
+    public GeneticActor() {}
+
+    /**
+     * Create an actor with an initialized population
+     * @param popSize Size of the population sample
+     * @param solution Goal of the current evolution cycle
+     */
+    public GeneticActor(int popSize, byte[] solution) {
+        initPopulationAndSolution(popSize, solution);
+    }
+
     /**
      * Initialize population
      * @param popSize Size of the population sample
@@ -202,7 +213,14 @@ public class GeneticActor extends AbsActor<GeneticMessage> {
 
     @Override
     public void receive(GeneticMessage message) {
-        if (message instanceof Evolve) {
+        if (message instanceof Init) {
+            Init init = (Init) message;
+            initPopulationAndSolution(init.getPopSize(), init.getSolution());
+            unstashAll();
+        } else if (individuals == null) {
+            // not initialized yet, defer the message until Init arrives
+            stash();
+        } else if (message instanceof Evolve) {
             Individual[] newPopulation = new Individual[individuals.length];
             for (int i = 0; i < newPopulation.length; ++i) {
                 newPopulation[i] = new Individual();